@@ -0,0 +1,127 @@
+package com.asemenkov.carpool.logistics.benchmarks;
+
+import static com.asemenkov.carpool.logistics.RealWorldData.REAL_DURATIONS;
+
+import java.util.Random;
+
+import com.asemenkov.carpool.logistics.services.algorithms.Car;
+import com.asemenkov.carpool.logistics.services.algorithms.FlatLittlesAlgorithm;
+import com.asemenkov.carpool.logistics.services.algorithms.HeldKarpSolver;
+import com.asemenkov.carpool.logistics.services.algorithms.LittlesAlgorithm;
+import com.asemenkov.carpool.logistics.services.algorithms.LittlesRouteSolver;
+import com.asemenkov.carpool.logistics.services.algorithms.PathRouteSolver;
+import com.asemenkov.carpool.logistics.services.algorithms.PickupDeliverySolver;
+import com.asemenkov.carpool.logistics.services.algorithms.RouteSolver;
+import com.asemenkov.carpool.logistics.services.algorithms.ThresholdRouteSolver;
+import com.asemenkov.carpool.logistics.services.enums.RouteSolverMode;
+
+/**
+ * Matrices and cars for benchmarks. All the random data are generated with
+ * fixed seed, so every run measures the same input.
+ * 
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+public class BenchmarkData {
+
+	public static final int CAPACITY = 4;
+	public static final int HELD_KARP_THRESHOLD = 9;
+	public static final int CONFIRMED_SWAPS = 4;
+
+	private static final long SEED = 42;
+	private static final int CITY_SIZE = 30000;
+	private static final double SPEED = 10;
+
+	private BenchmarkData() {
+	}
+
+	/**
+	 * @return duration matrix of random points in the square city, durations
+	 *         are distances with random detours divided by average speed
+	 */
+	public static int[][] getRandomMatrix(int size) {
+		Random random = new Random(SEED);
+		int[] x = random.ints(size, 0, CITY_SIZE).toArray();
+		int[] y = random.ints(size, 0, CITY_SIZE).toArray();
+		int[][] matrix = new int[size][size];
+
+		for (int i = 0; i < size; i++)
+			for (int j = 0; j < size; j++)
+				if (i != j)
+					matrix[i][j] = (int) (Math.hypot(x[i] - x[j], y[i] - y[j]) * (1.2 + random.nextDouble() / 2) / SPEED);
+
+		return matrix;
+	}
+
+	/**
+	 * @return top left corner of real world duration matrix
+	 */
+	public static int[][] getRealMatrix(int size) {
+		int[][] matrix = new int[size][size];
+		for (int i = 0; i < size; i++)
+			System.arraycopy(REAL_DURATIONS[i], 0, matrix[i], 0, size);
+		return matrix;
+	}
+
+	/**
+	 * Same solvers as route solver bean of application configuration
+	 */
+	public static RouteSolver getRouteSolver(RouteSolverMode mode) {
+		switch (mode) {
+		case LITTLES:
+			return new LittlesRouteSolver(() -> {
+				LittlesAlgorithm littlesAlgorithm = new FlatLittlesAlgorithm();
+				littlesAlgorithm.setWarmStart(true);
+				return littlesAlgorithm;
+			});
+		case PICKUP_DELIVERY:
+			return new PathRouteSolver(PickupDeliverySolver::new);
+		case HELD_KARP:
+			return new PathRouteSolver(HeldKarpSolver::new);
+		default:
+			return new ThresholdRouteSolver(new PathRouteSolver(HeldKarpSolver::new),
+					new PathRouteSolver(PickupDeliverySolver::new), HELD_KARP_THRESHOLD);
+		}
+	}
+
+	/**
+	 * Allocates passengers into the minimal amount of cars, as Logistics Process
+	 * does before Kernighan-Lin algorithm
+	 * 
+	 * @param passengers
+	 *            -- pairs of pick up and drop off Global Matrix indexes
+	 */
+	public static Car[] getCars(int[][] passengers, int[][] matrix, RouteSolver routeSolver, int maxLength) {
+		Car[] cars = new Car[(passengers.length + CAPACITY - 1) / CAPACITY];
+
+		for (int i = 0; i < cars.length; i++) {
+			cars[i] = new Car(CAPACITY, matrix);
+			cars[i].setMaxLength(maxLength);
+			cars[i].setConfirmedSwaps(CONFIRMED_SWAPS);
+			cars[i].setRouteSolver(routeSolver);
+		}
+
+		for (int i = 0; i < passengers.length; i++)
+			cars[i / CAPACITY].putPassenger(passengers[i][0], passengers[i][1]);
+
+		return cars;
+	}
+
+	/**
+	 * @param hubs
+	 *            -- pick up locations are Global Matrix indexes [0, hubs)
+	 * @return passengers with random hub and unique drop off location each
+	 */
+	public static int[][] getPassengers(int count, int hubs) {
+		Random random = new Random(SEED);
+		int[][] passengers = new int[count][2];
+
+		for (int i = 0; i < count; i++) {
+			passengers[i][0] = random.nextInt(hubs);
+			passengers[i][1] = hubs + i;
+		}
+
+		return passengers;
+	}
+
+}
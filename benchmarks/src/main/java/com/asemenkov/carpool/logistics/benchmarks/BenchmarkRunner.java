@@ -0,0 +1,28 @@
+package com.asemenkov.carpool.logistics.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs benchmarks with GC profiler, so allocation rate is reported along with
+ * throughput. Accepts all the JMH command line options, e.g.</br>
+ * java -jar target/benchmarks.jar LittlesBenchmark -p size=12,16
+ * 
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+		new Runner(new OptionsBuilder() //
+				.parent(commandLineOptions) //
+				.addProfiler(GCProfiler.class) //
+				.build()).run();
+	}
+
+}
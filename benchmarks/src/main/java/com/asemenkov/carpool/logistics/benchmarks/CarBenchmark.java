@@ -0,0 +1,61 @@
+package com.asemenkov.carpool.logistics.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.asemenkov.carpool.logistics.services.algorithms.Car;
+import com.asemenkov.carpool.logistics.services.enums.RouteSolverMode;
+
+/**
+ * Throughput of {@link Car#mixTwoItems(Car)} for two full cars. The first
+ * invocations find better allocation of passengers, all the rest check every
+ * swap without improvement, which is the most frequent case in Kernighan-Lin
+ * algorithm.
+ * 
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CarBenchmark {
+
+	private static final int MAX_LENGTH = 3600;
+	private static final int HUBS = 3;
+
+	@Param({ "LITTLES", "PICKUP_DELIVERY", "HELD_KARP", "AUTO" })
+	private RouteSolverMode solver;
+
+	private Car thisCar;
+	private Car thatCar;
+
+	@Setup
+	public void setUp() {
+		int[][] matrix = BenchmarkData.getRandomMatrix(HUBS + 2 * BenchmarkData.CAPACITY);
+		int[][] passengers = BenchmarkData.getPassengers(2 * BenchmarkData.CAPACITY, HUBS);
+		Car[] cars = BenchmarkData.getCars(passengers, matrix, BenchmarkData.getRouteSolver(solver), MAX_LENGTH);
+		thisCar = cars[0];
+		thatCar = cars[1];
+	}
+
+	@Benchmark
+	public int mixTwoItems() {
+		thisCar.mixTwoItems(thatCar);
+		return thisCar.getMixResult() + thatCar.getMixResult();
+	}
+
+}
@@ -0,0 +1,73 @@
+package com.asemenkov.carpool.logistics.benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.asemenkov.carpool.logistics.services.algorithms.Car;
+import com.asemenkov.carpool.logistics.services.algorithms.KernighanLinAlgorithm;
+import com.asemenkov.carpool.logistics.services.algorithms.RouteSolver;
+import com.asemenkov.carpool.logistics.services.enums.RouteSolverMode;
+
+/**
+ * Throughput of {@link KernighanLinAlgorithm#mix()} from the initial
+ * allocation of passengers, as it is done by Logistics Process. Route length is
+ * not limited, so the result doesn't depend on penalties.
+ * 
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MINUTES)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class KernighanLinBenchmark {
+
+	private static final int MAX_LENGTH = Integer.MAX_VALUE / 200;
+	private static final int PASSENGERS_PER_HUB = 10;
+
+	@Param({ "10", "50", "200" })
+	private int passengers;
+
+	@Param({ "AUTO" })
+	private RouteSolverMode solver;
+
+	private int[][] matrix;
+	private int[][] tasks;
+	private RouteSolver routeSolver;
+	private Car[] cars;
+
+	@Setup
+	public void setUp() {
+		int hubs = (passengers + PASSENGERS_PER_HUB - 1) / PASSENGERS_PER_HUB;
+		matrix = BenchmarkData.getRandomMatrix(hubs + passengers);
+		tasks = BenchmarkData.getPassengers(passengers, hubs);
+		routeSolver = BenchmarkData.getRouteSolver(solver);
+	}
+
+	@Setup(Level.Invocation)
+	public void fillCars() {
+		cars = BenchmarkData.getCars(tasks, matrix, routeSolver, MAX_LENGTH);
+	}
+
+	@Benchmark
+	public int mix() {
+		new KernighanLinAlgorithm<Car>(cars).mix();
+		return Arrays.stream(cars).mapToInt(Car::getMixResult).sum();
+	}
+
+}
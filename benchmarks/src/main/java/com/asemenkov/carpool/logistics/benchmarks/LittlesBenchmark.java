@@ -0,0 +1,75 @@
+package com.asemenkov.carpool.logistics.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.asemenkov.carpool.logistics.services.algorithms.BestFirstLittlesAlgorithm;
+import com.asemenkov.carpool.logistics.services.algorithms.FlatLittlesAlgorithm;
+import com.asemenkov.carpool.logistics.services.algorithms.LittlesAlgorithm;
+import com.asemenkov.carpool.logistics.services.algorithms.ParallelLittlesAlgorithm;
+import com.asemenkov.carpool.logistics.services.enums.LittlesMode;
+
+/**
+ * Throughput of {@link LittlesAlgorithm#findHamiltonianCycle(int[][], int)}
+ * for random and real world matrices
+ * 
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LittlesBenchmark {
+
+	@Param({ "4", "6", "8", "10", "12", "14", "16" })
+	private int size;
+
+	@Param({ "RANDOM", "REAL" })
+	private String matrix;
+
+	@Param({ "RECURSIVE", "FLAT", "BEST_FIRST" })
+	private LittlesMode engine;
+
+	private int[][] graph;
+	private LittlesAlgorithm littlesAlgorithm;
+
+	@Setup
+	public void setUp() {
+		graph = "REAL".equals(matrix) ? BenchmarkData.getRealMatrix(size) : BenchmarkData.getRandomMatrix(size);
+
+		switch (engine) {
+		case FLAT:
+			littlesAlgorithm = new FlatLittlesAlgorithm();
+			break;
+		case PARALLEL:
+			littlesAlgorithm = new ParallelLittlesAlgorithm();
+			break;
+		case BEST_FIRST:
+			littlesAlgorithm = new BestFirstLittlesAlgorithm();
+			break;
+		default:
+			littlesAlgorithm = new LittlesAlgorithm();
+		}
+	}
+
+	@Benchmark
+	public int findHamiltonianCycle() {
+		littlesAlgorithm.findHamiltonianCycle(graph, size);
+		return littlesAlgorithm.getPathLength();
+	}
+
+}
@@ -0,0 +1,62 @@
+package com.asemenkov.carpool.logistics.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.asemenkov.carpool.logistics.services.algorithms.SeatPairs;
+
+/**
+ * Throughput of enumeration of all the pair swaps between two cars, as it is
+ * done before scoring of the swaps. Allocation rate must stay at zero.
+ * 
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeatPairsBenchmark {
+
+	@Param({ "4", "8" })
+	private int capacity;
+
+	@Param({ "1", "3" })
+	private int emptySeats;
+
+	private SeatPairs seatPairs;
+
+	@Setup
+	public void setUp() {
+		seatPairs = new SeatPairs(capacity);
+	}
+
+	@Benchmark
+	public void enumeratePairSwaps(Blackhole blackhole) {
+		int seats = capacity - emptySeats;
+		int count = seatPairs.getCount(seats);
+
+		for (int i = 0; i < count; i++)
+			for (int j = 0; j < count; j++) {
+				int[] thisPair = seatPairs.get(seats, i);
+				int[] thatPair = seatPairs.get(seats, j);
+				blackhole.consume(thisPair[0] ^ thatPair[0]);
+				blackhole.consume(thisPair[1] ^ thatPair[1]);
+			}
+	}
+
+}
@@ -2,6 +2,9 @@ package com.asemenkov.carpool.logistics.config;
 
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
@@ -16,10 +19,24 @@ import com.asemenkov.carpool.logistics.models.dto.HubLocationDto;
 import com.asemenkov.carpool.logistics.models.dto.LogisticsDto;
 import com.asemenkov.carpool.logistics.models.dto.RouteDto;
 import com.asemenkov.carpool.logistics.models.dto.UserLocationDto;
+import com.asemenkov.carpool.logistics.services.algorithms.BestFirstLittlesAlgorithm;
 import com.asemenkov.carpool.logistics.services.algorithms.Car;
+import com.asemenkov.carpool.logistics.services.algorithms.FlatLittlesAlgorithm;
+import com.asemenkov.carpool.logistics.services.algorithms.HeldKarpSolver;
 import com.asemenkov.carpool.logistics.services.algorithms.KernighanLinAlgorithm;
 import com.asemenkov.carpool.logistics.services.algorithms.LittlesAlgorithm;
+import com.asemenkov.carpool.logistics.services.algorithms.LittlesRouteSolver;
 import com.asemenkov.carpool.logistics.services.algorithms.Mixable;
+import com.asemenkov.carpool.logistics.services.algorithms.ParallelLittlesAlgorithm;
+import com.asemenkov.carpool.logistics.services.algorithms.PathRouteSolver;
+import com.asemenkov.carpool.logistics.services.algorithms.PickupDeliverySolver;
+import com.asemenkov.carpool.logistics.services.algorithms.RouteCache;
+import com.asemenkov.carpool.logistics.services.algorithms.RouteSolver;
+import com.asemenkov.carpool.logistics.services.algorithms.SimulatedAnnealingAlgorithm;
+import com.asemenkov.carpool.logistics.services.algorithms.ThresholdRouteSolver;
+import com.asemenkov.carpool.logistics.services.enums.LittlesMode;
+import com.asemenkov.carpool.logistics.services.enums.MixingMode;
+import com.asemenkov.carpool.logistics.services.enums.RouteSolverMode;
 import com.asemenkov.carpool.logistics.services.enums.State;
 import com.asemenkov.carpool.logistics.services.enums.Status;
 import com.asemenkov.carpool.logistics.services.googlemaps.GoogleMapsPoint;
@@ -38,9 +55,62 @@ import com.asemenkov.carpool.logistics.utils.Factories.TriFactory;
 @PropertySource("classpath:aplication.properties")
 public class ApplicationConfiguration {
 
+	private static final AtomicInteger OPTIMIZATION_POOLS = new AtomicInteger();
+
 	@Value("${max.route_duration}")
 	private int maxRouteDuration;
 
+	@Value("${route.solver}")
+	private RouteSolverMode routeSolverMode;
+
+	@Value("${route.held_karp_threshold}")
+	private int heldKarpThreshold;
+
+	@Value("${route_cache.maximum_size}")
+	private int routeCacheMaximumSize;
+
+	@Value("${kernighan_lin.confirmed_swaps}")
+	private int kernighanLinConfirmedSwaps;
+
+	@Value("${optimization.parallelism}")
+	private int optimizationParallelism;
+
+	@Value("${optimization.mixing}")
+	private MixingMode mixingMode;
+
+	@Value("${optimization.starts}")
+	private int optimizationStarts;
+
+	@Value("${optimization.seed}")
+	private long optimizationSeed;
+
+	@Value("${simulated_annealing.temperature}")
+	private double simulatedAnnealingTemperature;
+
+	@Value("${simulated_annealing.cooling_rate}")
+	private double simulatedAnnealingCoolingRate;
+
+	@Value("${simulated_annealing.iterations}")
+	private int simulatedAnnealingIterations;
+
+	@Value("${simulated_annealing.time_budget_ms}")
+	private long simulatedAnnealingTimeBudget;
+
+	@Value("${littles.mode}")
+	private LittlesMode littlesMode;
+
+	@Value("${littles.best_first_memory_cap}")
+	private int littlesBestFirstMemoryCap;
+
+	@Value("${littles.warm_start}")
+	private boolean littlesWarmStart;
+
+	@Value("${littles.time_budget_ms}")
+	private long littlesTimeBudget;
+
+	@Value("${littles.node_budget}")
+	private long littlesNodeBudget;
+
 	@Bean
 	public LogisticsService carPoolService() {
 		return new LogisticsService();
@@ -52,7 +122,7 @@ public class ApplicationConfiguration {
 	}
 
 	@Bean
-	public DuoFactory<String, long[], LogisticsProcess> logisticsProcessFactory() {
+	public TriFactory<String, long[], MixingMode, LogisticsProcess> logisticsProcessFactory() {
 		return this::getLogisticsProcess;
 	}
 
@@ -61,6 +131,11 @@ public class ApplicationConfiguration {
 		return this::getKernighanLinAlgorithm;
 	}
 
+	@Bean
+	public MonoFactory<Car[], SimulatedAnnealingAlgorithm<Car>> simulatedAnnealingForCarsFactory() {
+		return this::getSimulatedAnnealingAlgorithm;
+	}
+
 	@Bean
 	public DuoFactory<Task, GoogleMapsPoint, HubLocationDto> hubLocationDtoFactory() {
 		return this::getHubLocationDto;
@@ -79,7 +154,66 @@ public class ApplicationConfiguration {
 	@Bean
 	@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 	public LittlesAlgorithm littlesAlgorithm() {
-		return new LittlesAlgorithm();
+		LittlesAlgorithm littlesAlgorithm;
+		switch (littlesMode) {
+		case FLAT:
+			littlesAlgorithm = new FlatLittlesAlgorithm();
+			break;
+		case PARALLEL:
+			littlesAlgorithm = new ParallelLittlesAlgorithm();
+			break;
+		case BEST_FIRST:
+			littlesAlgorithm = new BestFirstLittlesAlgorithm(littlesBestFirstMemoryCap);
+			break;
+		default:
+			littlesAlgorithm = new LittlesAlgorithm();
+		}
+		littlesAlgorithm.setWarmStart(littlesWarmStart);
+		littlesAlgorithm.setBudget(littlesTimeBudget, littlesNodeBudget);
+		return littlesAlgorithm;
+	}
+
+	/**
+	 * Threshold of Held-Karp solver is limited by its maximum size of graph
+	 */
+	@Bean
+	public RouteSolver routeSolver() {
+		int threshold = Math.min(heldKarpThreshold, HeldKarpSolver.MAX_SIZE + 1);
+		switch (routeSolverMode) {
+		case LITTLES:
+			return new LittlesRouteSolver(this::littlesAlgorithm);
+		case PICKUP_DELIVERY:
+			return new PathRouteSolver(PickupDeliverySolver::new);
+		case HELD_KARP:
+			return new PathRouteSolver(HeldKarpSolver::new);
+		default:
+			return new ThresholdRouteSolver(new PathRouteSolver(HeldKarpSolver::new),
+					new PathRouteSolver(PickupDeliverySolver::new), threshold);
+		}
+	}
+
+	@Bean
+	@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+	public RouteCache routeCache() {
+		return new RouteCache(routeCacheMaximumSize);
+	}
+
+	/**
+	 * Each Logistics Process gets its own pool, so one huge task can't take all
+	 * the processors. The pool must be shut down by the process.
+	 */
+	@Bean
+	@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+	public ForkJoinPool optimizationPool() {
+		int processors = Runtime.getRuntime().availableProcessors();
+		int parallelism = optimizationParallelism > 0 ? Math.min(optimizationParallelism, processors) : processors;
+		String prefix = "optimization-" + OPTIMIZATION_POOLS.incrementAndGet() + "-worker-";
+
+		return new ForkJoinPool(parallelism, pool -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setName(prefix + thread.getPoolIndex());
+			return thread;
+		}, null, false);
 	}
 
 	@Bean
@@ -97,6 +231,8 @@ public class ApplicationConfiguration {
 	protected Car getCar(int capacity, int[][] globalMatrix) {
 		Car car = new Car(capacity, globalMatrix);
 		car.setMaxLength(maxRouteDuration);
+		car.setConfirmedSwaps(kernighanLinConfirmedSwaps);
+		car.setRouteSolver(routeSolver());
 		return car;
 	}
 
@@ -107,10 +243,28 @@ public class ApplicationConfiguration {
 		return new KernighanLinAlgorithm<T>(mixables);
 	}
 
+	@Bean
+	@SuppressWarnings("rawtypes")
+	@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+	protected <T> SimulatedAnnealingAlgorithm<T> getSimulatedAnnealingAlgorithm(Mixable[] mixables) {
+		SimulatedAnnealingAlgorithm<T> simulatedAnnealingAlgorithm = new SimulatedAnnealingAlgorithm<T>(mixables);
+		simulatedAnnealingAlgorithm.setTemperature(simulatedAnnealingTemperature, simulatedAnnealingCoolingRate);
+		simulatedAnnealingAlgorithm.setBudget(simulatedAnnealingIterations, simulatedAnnealingTimeBudget);
+		simulatedAnnealingAlgorithm.setSeed(optimizationSeed);
+		return simulatedAnnealingAlgorithm;
+	}
+
+	/**
+	 * @param mixingMode
+	 *            -- mixing algorithm of the process, or null for the default one
+	 */
 	@Bean
 	@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
-	protected LogisticsProcess getLogisticsProcess(String id, long[] ids) {
-		return new LogisticsProcess(id, maxRouteDuration, ids);
+	protected LogisticsProcess getLogisticsProcess(String id, long[] ids, MixingMode mixingMode) {
+		LogisticsProcess logisticsProcess = new LogisticsProcess(id, maxRouteDuration,
+				mixingMode == null ? this.mixingMode : mixingMode, ids);
+		logisticsProcess.setStarts(optimizationStarts, optimizationSeed);
+		return logisticsProcess;
 	}
 
 	@Bean
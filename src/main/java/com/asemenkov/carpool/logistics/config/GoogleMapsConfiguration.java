@@ -1,5 +1,8 @@
 package com.asemenkov.carpool.logistics.config;
 
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Bean;
@@ -7,7 +10,10 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.context.annotation.Scope;
 
+import com.asemenkov.carpool.logistics.services.googlemaps.BlockPlanner;
+import com.asemenkov.carpool.logistics.services.googlemaps.DistanceMatrixFetcher;
 import com.asemenkov.carpool.logistics.services.googlemaps.DistanceMatrixRequest;
+import com.asemenkov.carpool.logistics.services.googlemaps.DistanceStore;
 import com.asemenkov.carpool.logistics.services.googlemaps.GoogleMapsPoint;
 import com.asemenkov.carpool.logistics.services.googlemaps.PointsNeighbourship;
 import com.asemenkov.carpool.logistics.utils.QuerySender;
@@ -36,14 +42,47 @@ public class GoogleMapsConfiguration {
 	@Value("${googlemaps.limit}")
 	private int limit;
 
-	@Value("${googlemaps.interval}")
-	private int interval;
+	@Value("${googlemaps.elements_limit}")
+	private int elementsLimit;
+
+	@Value("${googlemaps.elements_per_second}")
+	private int elementsPerSecond;
+
+	@Value("${googlemaps.in_flight}")
+	private int inFlight;
+
+	@Value("${googlemaps.store.path}")
+	private String storePath;
+
+	@Value("${googlemaps.store.precision}")
+	private int storePrecision;
+
+	@Value("${googlemaps.store.capacity}")
+	private int storeCapacity;
+
+	@Value("${googlemaps.store.ttl_hours}")
+	private int storeTtl;
 
 	@Bean
 	public QuerySender googleMapsQuerySender() {
 		return new QuerySender(url, path);
 	}
 
+	@Bean(destroyMethod = "close")
+	public DistanceMatrixFetcher distanceMatrixFetcher() {
+		return new DistanceMatrixFetcher(googleMapsQuerySender(), elementsPerSecond, inFlight);
+	}
+
+	@Bean(destroyMethod = "close")
+	public DistanceStore distanceStore() throws IOException {
+		return new DistanceStore(storePath, storePrecision, storeCapacity, TimeUnit.HOURS.toMillis(storeTtl));
+	}
+
+	@Bean
+	public BlockPlanner blockPlanner() {
+		return new BlockPlanner(elementsLimit, limit);
+	}
+
 	@Bean
 	public DuoFactory<GoogleMapsPoint[], GoogleMapsPoint[], PointsNeighbourship> pointsNeighbourshipFactory() {
 		return this::getPointsNeighbourship;
@@ -14,6 +14,7 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.asemenkov.carpool.logistics.models.dto.LogisticsDto;
+import com.asemenkov.carpool.logistics.services.enums.MixingMode;
 import com.asemenkov.carpool.logistics.services.exceptions.LogisticsProcessNotFoundException;
 import com.asemenkov.carpool.logistics.services.logistics.LogisticsService;
 
@@ -34,9 +35,10 @@ public class LogisticsWebService {
 	@ResponseStatus(HttpStatus.OK)
 	@RequestMapping(value = "/process", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
 	@ApiOperation(value = "Create Logistics Process")
-	public @ResponseBody LogisticsDto createLogisticsProcess(@RequestParam("tasks") long[] tasks) {
+	public @ResponseBody LogisticsDto createLogisticsProcess(@RequestParam("tasks") long[] tasks,
+			@RequestParam(value = "mixing", required = false) MixingMode mixing) {
 		String id = UUID.randomUUID().toString();
-		return logisticsService.startLogisticsProcessWithId(id, tasks).getLogisticsDto();
+		return logisticsService.startLogisticsProcessWithId(id, tasks, mixing).getLogisticsDto();
 	}
 
 	@ResponseStatus(HttpStatus.OK)
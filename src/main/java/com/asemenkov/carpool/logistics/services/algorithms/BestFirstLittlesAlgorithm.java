@@ -0,0 +1,131 @@
+package com.asemenkov.carpool.logistics.services.algorithms;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Best-first engine of the Little's algorithm. Reduced graphs are kept in
+ * priority queue ordered by their lower bound, so the most promising branch is
+ * always explored first and the first cycle found is close to the optimal one.
+ * As soon as the lowest bound in the queue is not less than the best path, the
+ * search is finished.</br>
+ *
+ * The queue is limited by the total number of cells of queued graphs. If the
+ * limit is reached, new branches are explored depth-first like in
+ * {@link LittlesAlgorithm}.
+ *
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+public class BestFirstLittlesAlgorithm extends LittlesAlgorithm {
+
+	public static final int DEFAULT_MEMORY_CAP = 1000000;
+
+	private static final Comparator<Branch> CMP_BY_BOUND = Comparator //
+			.comparingInt((Branch branch) -> branch.graph[0][0]) //
+			.thenComparingInt(branch -> branch.graph.length);
+
+	private final PriorityQueue<Branch> queue = new PriorityQueue<>(CMP_BY_BOUND);
+	private final int memoryCap;
+	private int queuedCells;
+
+	public BestFirstLittlesAlgorithm() {
+		this(DEFAULT_MEMORY_CAP);
+	}
+
+	/**
+	 * @param memoryCap
+	 *            -- maximum total number of cells of the queued graphs
+	 */
+	public BestFirstLittlesAlgorithm(int memoryCap) {
+		this.memoryCap = memoryCap;
+	}
+
+	/**
+	 * Builds Hamiltonian Cycle for copy of argument matrix, exploring the branch
+	 * with the lowest bound first. Initial matrix is not altered.
+	 *
+	 * @param graph
+	 *            -- square matrix at least 2x2
+	 * @param size
+	 *            -- size of matrix, must be less or equals origin matrix sizes
+	 * @param tour
+	 *            -- known tour as array of nodes in the order of visiting, or null
+	 */
+	@Override
+	public void findHamiltonianCycle(int[][] graph, int size, int[] tour) {
+		startSearch(graph, size, tour);
+		queue.clear();
+		queuedCells = 0;
+
+		offer(getIndexedGraph(graph, size), new int[0][2]);
+
+		while (!queue.isEmpty() && !isBudgetExhausted(exploredNodes)) {
+			Branch branch = queue.poll();
+			queuedCells -= branch.graph.length * branch.graph.length;
+			if (branch.graph[0][0] >= bestPath)
+				break;
+			branchOut(branch.graph, branch.cycle);
+		}
+
+		queue.clear();
+		finishSearch(graph, size);
+	}
+
+	/**
+	 * Reduces the graph and puts it into the queue. If the memory cap is
+	 * reached, explores the branch depth-first instead.
+	 */
+	private void offer(int[][] graph, int[][] cycle) {
+		if (queuedCells + graph.length * graph.length > memoryCap) {
+			recursiveHamiltonianCycle(graph, cycle);
+			return;
+		}
+
+		if (isBudgetExhausted(++exploredNodes) || !reduceGraph(graph))
+			return;
+
+		queue.add(new Branch(graph, cycle));
+		queuedCells += graph.length * graph.length;
+	}
+
+	/**
+	 * Steps 5-12 of {@link #recursiveHamiltonianCycle(int[][], int[][])} for the
+	 * reduced graph polled from the queue
+	 */
+	private void branchOut(int[][] graph, int[][] cycle) {
+		int[][] zerosCoords = findZerosCoordinates(graph);
+
+		if (graph.length == 3) {
+			bestCycle = appendToCycle(graph, cycle, zerosCoords[0], zerosCoords[1]);
+			bestPath = graph[0][0];
+			return;
+		}
+
+		int[] littlesSums = findLittlesSums(graph, zerosCoords);
+		int[][] coords = filterCoordsLessThanMaxSum(zerosCoords, littlesSums);
+		int[][][] branchedGraph = branchOutGraph(graph, coords);
+
+		for (int i = 0; i < coords.length; i++)
+			offer(branchedGraph[i], appendToCycle(graph, cycle, coords[i]));
+
+		for (int i = coords.length; i < branchedGraph.length; i++)
+			offer(branchedGraph[i], cycle);
+	}
+
+	/**
+	 * Reduced graph with indexes and accumulated length, and the edges
+	 * accumulated on the way to it
+	 */
+	private static class Branch {
+
+		private final int[][] graph;
+		private final int[][] cycle;
+
+		private Branch(int[][] graph, int[][] cycle) {
+			this.graph = graph;
+			this.cycle = cycle;
+		}
+	}
+
+}
@@ -1,71 +1,67 @@
 package com.asemenkov.carpool.logistics.services.algorithms;
 
 import java.util.Arrays;
-import java.util.stream.IntStream;
-
-import org.springframework.beans.factory.annotation.Autowired;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * Mixable implementation which will be used as argument for Kernighan-Lin. All
- * the calculations are performed with draft variables. If the result of
- * calculations is better than before, draft data are copied to fair. Otherwise
- * restores data from fair to draft.
+ * Mixable implementation which will be used as argument for Kernighan-Lin and
+ * Simulated Annealing. The passengers and their route are kept as immutable
+ * {@link CarState} snapshot.
+ * Gains of all the candidate swaps between two cars are estimated with
+ * {@link RouteEstimator}, and only the swaps with the best estimates, which
+ * beat the current result, are confirmed by route solver in parallel against
+ * the snapshots. The best confirmed swap is committed.</br>
+ * 
+ * The commit replaces snapshots of both cars only if neither of them has been
+ * changed since the swap was scored, otherwise the swaps are scored again with
+ * the new snapshots.
  * 
  * @author asemenkov
  * @since Feb 11, 2018
  */
 public class Car implements Mixable<Car> {
 
-	private final int[][] globalMatrix;
-	private final int[][] picksDropsGraph;
-
-	private final int[] draftPicks;
-	private final int[] fairPicks;
-
-	private final int[] draftDrops;
-	private final int[] fairDrops;
-	private final int[] distinctPicks;
+	private static final AtomicLong SEQUENCE = new AtomicLong();
+	private static final ThreadLocal<Workspace> WORKSPACES = ThreadLocal.withInitial(Workspace::new);
+	private static final int MOVE_SIZE = 4;
+	private static final int[][] NO_MOVES = new int[0][];
 
-	private int distinctPicksLength;
-	private int maxLength;
+	private final long id = SEQUENCE.getAndIncrement();
+	private final int[][] globalMatrix;
 	private final int capacity;
+	private final SeatPairs seatPairs;
+	private final AtomicReference<CarState> state;
 
-	private int[][] draftRoute;
-	private int[][] fairRoute;
-
-	private int draftPathLength;
-	private int fairPathLength;
-
-	private int draftSeats;
-	private int fairSeats;
-
-	private @Autowired LittlesAlgorithm littlesAlgorithm;
+	private volatile int maxLength;
+	private volatile int confirmedSwaps;
+	private volatile RouteSolver routeSolver;
+	private volatile RouteCache routeCache;
 
 	public Car(int capacity, int[][] globalMatrix) {
 		this.capacity = capacity;
 		this.globalMatrix = globalMatrix;
-		this.picksDropsGraph = new int[2 * capacity][2 * capacity];
-
-		draftRoute = new int[0][0];
-		fairRoute = new int[0][0];
-		draftPicks = new int[capacity];
-		fairPicks = new int[capacity];
-		draftDrops = new int[capacity];
-		fairDrops = new int[capacity];
-		distinctPicks = new int[capacity];
+		this.seatPairs = new SeatPairs(capacity);
 
-		Arrays.fill(draftPicks, -1);
-		Arrays.fill(fairPicks, -1);
-		Arrays.fill(draftDrops, -1);
-		Arrays.fill(fairDrops, -1);
+		int[] picks = new int[capacity];
+		int[] drops = new int[capacity];
+		Arrays.fill(picks, -1);
+		Arrays.fill(drops, -1);
+		this.state = new AtomicReference<>(new CarState(picks, drops, 0, 0, null));
 	}
 
 	/**
 	 * Parameters 'from' are 'to' must be Global Matrix indexes
 	 */
-	public synchronized Car putPassenger(int from, int to) {
-		draftPicks[draftSeats] = from;
-		draftDrops[draftSeats++] = to;
+	public Car putPassenger(int from, int to) {
+		state.updateAndGet(current -> {
+			int[] picks = current.getPicks().clone();
+			int[] drops = current.getDrops().clone();
+			picks[current.getSeats()] = from;
+			drops[current.getSeats()] = to;
+			return new CarState(picks, drops, current.getSeats() + 1, 0, null);
+		});
 		return this;
 	}
 
@@ -74,41 +70,76 @@ public class Car implements Mixable<Car> {
 	 *            -- either distance or duration limitation</br>
 	 *            values can be found in application.properties
 	 */
-	public synchronized void setMaxLength(int maxLength) {
+	public void setMaxLength(int maxLength) {
 		this.maxLength = maxLength;
 	}
 
+	/**
+	 * @param confirmedSwaps
+	 *            -- number of candidate swaps with the best estimated gains,
+	 *            which are confirmed by route solver, 0 to confirm all the
+	 *            candidates
+	 */
+	public void setConfirmedSwaps(int confirmedSwaps) {
+		this.confirmedSwaps = confirmedSwaps;
+	}
+
+	/**
+	 * @param routeSolver
+	 *            -- stateless solver which finds Hamiltonian Path of the car
+	 */
+	public void setRouteSolver(RouteSolver routeSolver) {
+		this.routeSolver = routeSolver;
+	}
+
+	/**
+	 * @param routeCache
+	 *            -- cache of routes shared by the cars of one Logistics Process, or
+	 *            null to find each route from scratch
+	 */
+	public void setRouteCache(RouteCache routeCache) {
+		this.routeCache = routeCache;
+	}
+
 	/**
 	 * @return whether any passenger lives too far from his hub</br>
 	 *         if true, then the task cannot be solved because of MaxLength
 	 *         limitation <b>(each car rides <= 60 min)</b>
 	 */
-	public synchronized boolean isAnyRouteGreaterThanMaxLength() {
-		for (int i = 0; i < draftSeats; i++)
-			if (globalMatrix[draftPicks[i]][draftDrops[i]] > maxLength)
+	public boolean isAnyRouteGreaterThanMaxLength() {
+		CarState current = state.get();
+		for (int i = 0; i < current.getSeats(); i++)
+			if (globalMatrix[current.getPicks()[i]][current.getDrops()[i]] > maxLength)
 				return true;
 		return false;
 	}
 
+	/**
+	 * @return current snapshot of passengers and their route
+	 */
+	public CarState getState() {
+		return state.get();
+	}
+
 	/**
 	 * @return Array of pick up Location indexes (relates to Global Matrix)
 	 */
-	public synchronized int[] getPicks() {
-		return fairPicks;
+	public int[] getPicks() {
+		return state.get().getPicks();
 	}
 
 	/**
 	 * @return Array of drop off Location indexes (relates to Global Matrix)
 	 */
-	public synchronized int[] getDrops() {
-		return fairDrops;
+	public int[] getDrops() {
+		return state.get().getDrops();
 	}
 
 	/**
 	 * @return number of passengers
 	 */
-	public synchronized int getSeatsOccupied() {
-		return fairSeats;
+	public int getSeatsOccupied() {
+		return state.get().getSeats();
 	}
 
 	/**
@@ -116,331 +147,630 @@ public class Car implements Mixable<Car> {
 	 *         off Locations</br>
 	 *         example: {1,1,2,3} -> [1,1] [1,2] [2,3]
 	 */
-	public synchronized int[][] getSuggestedRoute() {
-		return fairRoute;
+	public int[][] getSuggestedRoute() {
+		int[][] route = state.get().getRoute();
+		return route == null ? new int[0][0] : route;
 	}
 
 	/**
 	 * @return either distance in seconds or duration in meters
 	 */
 	@Override
-	public synchronized int getMixResult() {
-		return fairPathLength;
+	public int getMixResult() {
+		return state.get().getPathLength();
 	}
 
 	/**
-	 * Must be used, if one car is enough to place all passengers
+	 * @return path length with penalty for exceeding the max length
 	 */
 	@Override
-	public synchronized void mixOneItem() {
-		preMix();
-		copyFromDraftToFair();
+	public int getMixCost() {
+		return getPathLengthWithPenalty(state.get());
 	}
 
 	/**
-	 * Swaps passengers between this and that car
+	 * Must be used, if one car is enough to place all passengers
 	 */
 	@Override
-	public synchronized void mixTwoItems(Car that) {
-		that.mixPassenegrs(this);
+	public void mixOneItem() {
+		getEvaluatedState();
 	}
 
 	/**
-	 * Finds Hamiltonian Path for this car
+	 * Swaps passengers pairs between this and that car
 	 */
-	private synchronized void preMix() {
-		shiftEmptySeats();
-		findPathLength();
+	@Override
+	public void mixTwoItems(Car that) {
+		movePassengers(that, (thisState, thatState, workspace, from) -> getPairSwaps(that, thisState, thatState,
+				workspace, from), 0);
 	}
 
 	/**
-	 * 1. Combines passengers into pairs for both cars</br>
-	 * 2. Swaps passengers pairs between two cars until better result's achieved
+	 * Moves one passenger from this car to a free seat of that car or vice versa
 	 */
-	private synchronized void mixPassenegrs(Car that) {
-		if (this.draftPathLength == 0) {
-			this.preMix();
-			this.copyFromDraftToFair();
-		}
-
-		if (that.draftPathLength == 0) {
-			that.preMix();
-			that.copyFromDraftToFair();
-		}
+	@Override
+	public void relocateOneItem(Car that) {
+		movePassengers(that, Car::getRelocations, 0);
+	}
 
-		int[][] thisPassengerPairs = this.getPassengerPairs();
-		int[][] thatPassengerPairs = that.getPassengerPairs();
+	/**
+	 * Swaps one passenger of this car for one passenger of that car
+	 */
+	@Override
+	public void swapOneItem(Car that) {
+		movePassengers(that, Car::getSingleSwaps, 0);
+	}
 
-		for (int tmp, i = 0; i < thisPassengerPairs.length; i++)
-			for (int j = 0; j < thatPassengerPairs.length; j++) {
+	/**
+	 * Makes the best of pairs swaps, relocations and single swaps between this
+	 * and that car, even if it makes total length longer, but by less than
+	 * tolerance
+	 */
+	@Override
+	public int moveItems(Car that, int tolerance) {
+		return movePassengers(that, (thisState, thatState, workspace, from) -> {
+			int count = getPairSwaps(that, thisState, thatState, workspace, from);
+			count += getRelocations(thisState, thatState, workspace, from + count);
+			return count + getSingleSwaps(thisState, thatState, workspace, from + count);
+		}, tolerance);
+	}
 
-				tmp = this.draftPicks[thisPassengerPairs[i][0]];
-				this.draftPicks[thisPassengerPairs[i][0]] = that.draftPicks[thatPassengerPairs[j][0]];
-				that.draftPicks[thatPassengerPairs[j][0]] = tmp;
+	/**
+	 * @return current immutable {@link CarState}
+	 */
+	@Override
+	public Object getSnapshot() {
+		return state.get();
+	}
 
-				tmp = this.draftDrops[thisPassengerPairs[i][0]];
-				this.draftDrops[thisPassengerPairs[i][0]] = that.draftDrops[thatPassengerPairs[j][0]];
-				that.draftDrops[thatPassengerPairs[j][0]] = tmp;
+	@Override
+	public void restoreSnapshot(Object snapshot) {
+		state.set((CarState) snapshot);
+	}
 
-				tmp = this.draftPicks[thisPassengerPairs[i][1]];
-				this.draftPicks[thisPassengerPairs[i][1]] = that.draftPicks[thatPassengerPairs[j][1]];
-				that.draftPicks[thatPassengerPairs[j][1]] = tmp;
+	/**
+	 * @return whether there are no passengers in the car
+	 */
+	@Override
+	public boolean isEmpty() {
+		return state.get().getSeats() == 0;
+	}
 
-				tmp = this.draftDrops[thisPassengerPairs[i][1]];
-				this.draftDrops[thisPassengerPairs[i][1]] = that.draftDrops[thatPassengerPairs[j][1]];
-				that.draftDrops[thatPassengerPairs[j][1]] = tmp;
+	/**
+	 * Finds Hamiltonian Path for this car, if it isn't found yet
+	 * 
+	 * @return evaluated snapshot
+	 */
+	private CarState getEvaluatedState() {
+		CarState current = state.get();
+		if (current.isEvaluated())
+			return current;
 
-				if (compareThisAndThat(that))
-					return;
-			}
+		CarState evaluated = evaluate(current.getPicks().clone(), current.getDrops().clone(), null);
+		return state.compareAndSet(current, evaluated) ? evaluated : getEvaluatedState();
 	}
 
 	/**
-	 * @return passengers combined into unique pairs
+	 * 1. Builds all the moves of the neighbourhood for both cars</br>
+	 * 2. Estimates result of each move by cheapest insertion into the current
+	 * routes and sorts the moves by estimated gain</br>
+	 * 3. Confirms the moves with the best estimates by route solver in parallel,
+	 * if the estimates are within the tolerance</br>
+	 * 4. Commits the confirmed move which leads to the best result
+	 * 
+	 * @param tolerance
+	 *            -- how much longer total length may become, 0 for improving
+	 *            moves only
+	 * @return change of total length, 0 if nothing is moved
 	 */
-	private int[][] getPassengerPairs() {
-		int[][] possiblePairs = new int[capacity * capacity][2];
-		int[] hashes = new int[possiblePairs.length];
+	private int movePassengers(Car that, Neighbourhood neighbourhood, int tolerance) {
+		while (true) {
+			CarState thisState = this.getEvaluatedState();
+			CarState thatState = that.getEvaluatedState();
+			int pathLengthBefore = this.getPathLengthWithPenalty(thisState) + that.getPathLengthWithPenalty(thatState);
+			int limit = pathLengthBefore + tolerance;
+
+			CarState[] move = Arrays
+					.stream(getMovesToConfirm(that, thisState, thatState, limit, neighbourhood)).parallel() //
+					.map(m -> swapPassengers(that, thisState, thatState, m)) //
+					.filter(s -> getPathLengthWithPenalty(s[0]) + that.getPathLengthWithPenalty(s[1]) < limit) //
+					.min(Comparator.comparingInt(s -> getPathLengthWithPenalty(s[0]) + that.getPathLengthWithPenalty(s[1]))) //
+					.orElse(null);
+
+			if (move == null)
+				return 0;
+			if (commit(this, thisState, move[0], that, thatState, move[1]))
+				return move[0].getPathLength() + move[1].getPathLength() - thisState.getPathLength()
+						- thatState.getPathLength();
+		}
+	}
 
-		for (int index = 0, hash, i = 0; i < capacity; i++)
-			loop: for (int j = 0; j < capacity; j++, index++) {
+	/**
+	 * Moves are built and estimated in buffers of the thread's workspace, so the
+	 * moves rejected by estimate allocate nothing
+	 * 
+	 * @param limit
+	 *            -- total length with penalties which must be beaten
+	 * @return moves with the best estimated gains, which beat the limit,
+	 *         starting from the best one
+	 */
+	private int[][] getMovesToConfirm(Car that, CarState thisState, CarState thatState, int limit,
+			Neighbourhood neighbourhood) {
+		Workspace workspace = WORKSPACES.get();
+		int count = neighbourhood.getMoves(thisState, thatState, workspace, 0);
+		int[] moves = workspace.moves;
+		long[] gains = workspace.getGains(count);
+		int[][] seats = workspace.getSeats(this.capacity, that.capacity);
+		int[] sequence = workspace.getSequence(4 * Math.max(this.capacity, that.capacity));
+
+		for (int k = 0; k < count; k++) {
+			if (isIdle(thisState, thatState, moves, k * MOVE_SIZE)) {
+				gains[k] = (long) Integer.MIN_VALUE << 32 | (count - k);
+				continue;
+			}
 
-				possiblePairs[index][0] = i;
-				possiblePairs[index][1] = j;
-				hash = (31 + draftPicks[i]) * (31 + draftPicks[j]) * //
-						(31 + draftDrops[i]) * (31 + draftDrops[j]);
+			swapSeats(thisState, thatState, moves, k * MOVE_SIZE, seats);
+			int estimate = this.getPathLengthWithPenalty(
+					RouteEstimator.getInsertionLength(globalMatrix, thisState, seats[0], seats[1], sequence))
+					+ that.getPathLengthWithPenalty(
+							RouteEstimator.getInsertionLength(that.globalMatrix, thatState, seats[2], seats[3], sequence));
+			gains[k] = (long) (limit - estimate) << 32 | (count - k);
+		}
 
-				for (int k = 0; k < index; k++)
-					if (hashes[k] == hash)
-						continue loop;
+		Arrays.sort(gains, 0, count);
+		int confirmed = 0;
+		while (confirmed < count && gains[count - 1 - confirmed] >> 32 > 0
+				&& (confirmedSwaps == 0 || confirmed < confirmedSwaps))
+			confirmed++;
 
-				hashes[index] = hash;
-			}
+		if (confirmed == 0)
+			return NO_MOVES;
 
-		int[][] toReturn = new int[(int) IntStream.of(hashes).filter(h -> h == 0).count()][2];
-		for (int i = 0, index = 0; i < toReturn.length; i++)
-			if (hashes[i] != 0)
-				toReturn[index++] = possiblePairs[i];
+		int[][] toReturn = new int[confirmed][];
+		for (int i = 0; i < confirmed; i++) {
+			int k = count - (int) gains[count - 1 - i];
+			toReturn[i] = Arrays.copyOfRange(moves, k * MOVE_SIZE, (k + 1) * MOVE_SIZE);
+		}
 
 		return toReturn;
 	}
 
 	/**
-	 * 1. Calculate sum of this and that car path lengths with penalties</br>
-	 * 2. Finds Hamiltonian Path for both cars</br>
-	 * 3. If better result is achieved, copies data from draft to fair</br>
-	 * 4. Otherwise, copies from fair to draft
+	 * Pairs of seats are enumerated by {@link SeatPairs}, so a passenger may be
+	 * swapped for two passengers or for empty seats, but the same swap is never
+	 * scored twice.
 	 * 
-	 * @return whether better result is achieved
+	 * @return number of swaps of each seats pair of this car for each seats pair
+	 *         of that car
 	 */
-	private boolean compareThisAndThat(Car that) {
-		int pathLengthBefore = this.getPathLengthWithPenalty() + that.getPathLengthWithPenalty();
-
-		this.preMix();
-		that.preMix();
-
-		if (pathLengthBefore > this.getPathLengthWithPenalty() + that.getPathLengthWithPenalty()) {
-			this.copyFromDraftToFair();
-			that.copyFromDraftToFair();
-			return true;
-
-		} else {
-			this.copyFromFairToDraft();
-			that.copyFromFairToDraft();
-			return false;
+	private int getPairSwaps(Car that, CarState thisState, CarState thatState, Workspace workspace, int from) {
+		int thisSeats = thisState.getSeats(), thatSeats = thatState.getSeats();
+		int thisCount = this.seatPairs.getCount(thisSeats);
+		int thatCount = that.seatPairs.getCount(thatSeats);
+		int[] moves = workspace.getMoves(from + thisCount * thatCount);
+
+		for (int k = 0, offset = from * MOVE_SIZE; k < thisCount * thatCount; k++, offset += MOVE_SIZE) {
+			int[] thisPair = this.seatPairs.get(thisSeats, k / thatCount);
+			int[] thatPair = that.seatPairs.get(thatSeats, k % thatCount);
+			setMove(moves, offset, thisPair[0], thisPair[1], thatPair[0], thatPair[1]);
 		}
+
+		return thisCount * thatCount;
 	}
 
 	/**
-	 * Each second / meter beyond the limit is multiplied by 100
+	 * Empty seats are shifted to the right, so the first empty seat stands for
+	 * all of them
+	 * 
+	 * @return number of moves of each passenger to the first empty seat of
+	 *         another car
 	 */
-	private int getPathLengthWithPenalty() {
-		int diff = draftPathLength - maxLength;
-		return draftPathLength + (diff > 0 ? diff * 100 : 0);
+	private static int getRelocations(CarState thisState, CarState thatState, Workspace workspace, int from) {
+		int thisSeats = thisState.getSeats(), thatSeats = thatState.getSeats();
+		int thisFree = thisSeats < thisState.getPicks().length ? 1 : 0;
+		int thatFree = thatSeats < thatState.getPicks().length ? 1 : 0;
+		int count = thisSeats * thatFree + thatSeats * thisFree;
+		int[] moves = workspace.getMoves(from + count);
+
+		int offset = from * MOVE_SIZE;
+		for (int i = 0; i < thisSeats * thatFree; i++, offset += MOVE_SIZE)
+			setMove(moves, offset, i, -1, thatSeats, -1);
+		for (int j = 0; j < thatSeats * thisFree; j++, offset += MOVE_SIZE)
+			setMove(moves, offset, thisSeats, -1, j, -1);
+
+		return count;
 	}
 
 	/**
-	 * Shifts empty cells of picks and drops arrays to the right:</br>
-	 * {-1, 1, 2, -1} -> {1, 2, -1, -1}</br>
-	 * Calculates number of passengers
+	 * @return number of swaps of each passenger of this car for each passenger of
+	 *         that car
 	 */
-	private void shiftEmptySeats() {
-		for (int tmp, i = 0, j = 1; j < capacity; i++, j++)
-			if (draftPicks[i] < 0 && draftPicks[j] >= 0) {
+	private static int getSingleSwaps(CarState thisState, CarState thatState, Workspace workspace, int from) {
+		int count = thisState.getSeats() * thatState.getSeats();
+		int[] moves = workspace.getMoves(from + count);
 
-				tmp = draftPicks[i];
-				draftPicks[i] = draftPicks[j];
-				draftPicks[j] = tmp;
+		for (int k = 0; k < count; k++)
+			setMove(moves, (from + k) * MOVE_SIZE, k / thatState.getSeats(), -1, k % thatState.getSeats(), -1);
 
-				tmp = draftDrops[i];
-				draftDrops[i] = draftDrops[j];
-				draftDrops[j] = tmp;
-				shiftEmptySeats();
-			}
+		return count;
+	}
 
-		for (draftSeats = 0; draftSeats < capacity; draftSeats++)
-			if (draftPicks[draftSeats] < 0)
-				break;
+	private static void setMove(int[] moves, int offset, int thisSeat, int thisOtherSeat, int thatSeat,
+			int thatOtherSeat) {
+		moves[offset] = thisSeat;
+		moves[offset + 1] = thisOtherSeat;
+		moves[offset + 2] = thatSeat;
+		moves[offset + 3] = thatOtherSeat;
 	}
 
 	/**
-	 * Builds graph using Global Matrix data:</br>
-	 * - from each pick up location to each pick up location</br>
-	 * - from each pick up location to each drop off location</br>
-	 * - from each drop off location to each pick up location</br>
-	 * - from each drop off location to each drop off location</br>
+	 * Idle moves swap empty seats for empty seats, passengers for the same
+	 * passengers, or all the passengers of cars of the same capacity, they must
+	 * not be taken for moves within tolerance
 	 * 
-	 * Distance from drop off to pick up location is set to extremely high value. It
-	 * helps to build route straight from picks to drops
+	 * @return whether the move changes neither this nor that car, up to
+	 *         exchange of the cars
 	 */
-	private void combinePicksAndDrops() {
-
-		distinctPicks[0] = draftPicks[0];
-		distinctPicksLength = 1;
-
-		loop: for (int i = 1; i < draftPicks.length; i++) {
-			if (draftPicks[i] < 0)
-				continue;
-			for (int j = 0; j < distinctPicksLength; j++)
-				if (distinctPicks[j] == draftPicks[i])
-					continue loop;
-			distinctPicks[distinctPicksLength++] = draftPicks[i];
-		}
+	private static boolean isIdle(CarState thisState, CarState thatState, int[] moves, int offset) {
+		long thisFirst = getPassenger(thisState, moves[offset]), thisSecond = getPassenger(thisState, moves[offset + 1]);
+		long thatFirst = getPassenger(thatState, moves[offset + 2]), thatSecond = getPassenger(thatState, moves[offset + 3]);
 
-		for (int i = 0; i < distinctPicksLength; i++)
-			for (int j = 0; j < distinctPicksLength; j++)
-				picksDropsGraph[i][j] = globalMatrix[distinctPicks[i]][distinctPicks[j]];
-
-		for (int i = 0; i < distinctPicksLength; i++)
-			for (int j = 0; j < draftSeats; j++)
-				picksDropsGraph[i][j + distinctPicksLength] = globalMatrix[distinctPicks[i]][draftDrops[j]];
+		if (thisFirst == thatFirst && thisSecond == thatSecond || thisFirst == thatSecond && thisSecond == thatFirst)
+			return true;
 
-		for (int i = 0; i < draftSeats; i++)
-			for (int j = 0; j < distinctPicksLength; j++)
-				picksDropsGraph[i + distinctPicksLength][j] = LittlesAlgorithm.INF3;
+		int thisMoved = (thisFirst < 0 ? 0 : 1) + (thisSecond < 0 ? 0 : 1);
+		int thatMoved = (thatFirst < 0 ? 0 : 1) + (thatSecond < 0 ? 0 : 1);
+		return thisMoved == thisState.getSeats() && thatMoved == thatState.getSeats()
+				&& thisState.getPicks().length == thatState.getPicks().length;
+	}
 
-		for (int i = 0; i < draftSeats; i++)
-			for (int j = 0; j < draftSeats; j++)
-				picksDropsGraph[i + distinctPicksLength][j + distinctPicksLength] = //
-						globalMatrix[draftDrops[i]][draftDrops[j]];
+	/**
+	 * @return pick and drop of the seat, or -1 for empty or unused seat
+	 */
+	private static long getPassenger(CarState carState, int seat) {
+		return seat < 0 || carState.getPicks()[seat] < 0 ? -1
+				: (long) carState.getPicks()[seat] << 32 | carState.getDrops()[seat] & 0xFFFFFFFFL;
 	}
 
 	/**
-	 * Builds Hamiltonian Path with the help of Littles algorithm
+	 * Copies the snapshots into seats arrays and swaps seats of the move
+	 * 
+	 * @param moves
+	 *            -- buffer of moves, the move takes {@link #MOVE_SIZE} cells:
+	 *            two seats of this car, then two seats of that car, -1 for
+	 *            unused seat
+	 * @param seats
+	 *            -- picks and drops of this car, then picks and drops of that
+	 *            car
 	 */
-	private void findPathLength() {
-		if (draftSeats == 0) {
-			draftPathLength = 0;
-			draftRoute = new int[0][0];
-		}
+	private static void swapSeats(CarState thisState, CarState thatState, int[] moves, int offset, int[][] seats) {
+		System.arraycopy(thisState.getPicks(), 0, seats[0], 0, seats[0].length);
+		System.arraycopy(thisState.getDrops(), 0, seats[1], 0, seats[1].length);
+		System.arraycopy(thatState.getPicks(), 0, seats[2], 0, seats[2].length);
+		System.arraycopy(thatState.getDrops(), 0, seats[3], 0, seats[3].length);
+
+		for (int tmp, i = 0; i < 2; i++) {
+			int thisSeat = moves[offset + i], thatSeat = moves[offset + 2 + i];
+			if (thisSeat < 0)
+				continue;
 
-		else if (draftSeats == 1) {
-			draftPathLength = globalMatrix[draftPicks[0]][draftDrops[0]];
-			draftRoute = new int[][] { { draftPicks[0], draftDrops[0] } };
+			tmp = seats[0][thisSeat];
+			seats[0][thisSeat] = seats[2][thatSeat];
+			seats[2][thatSeat] = tmp;
 
-		} else {
-			combinePicksAndDrops();
-			littlesAlgorithm.findHamiltonianCycle(picksDropsGraph, draftSeats + distinctPicksLength);
-			draftPathLength = littlesAlgorithm.getPathLength() - LittlesAlgorithm.INF3;
-			draftRoute = cleanRoute(littlesAlgorithm.getPathCycle());
+			tmp = seats[1][thisSeat];
+			seats[1][thisSeat] = seats[3][thatSeat];
+			seats[3][thatSeat] = tmp;
 		}
 	}
 
 	/**
-	 * @param dirtyRoute
-	 *            -- result of Littles algorithm
-	 * @return integer array of format [1,1] [1,2] [2,3]</br>
-	 *         each pick up and drop off location is visited in proper order
+	 * Swaps seats of this car with seats of that car on copies of the snapshots
+	 * and finds the routes
+	 * 
+	 * @param move
+	 *            -- seats to swap in format of moves buffer
+	 * @return new snapshots of this and that car
 	 */
-	private int[][] cleanRoute(int[][] dirtyRoute) {
-		int[][] cleanRoute = new int[dirtyRoute.length - 1][2];
-		int start = -1, end = -1;
+	private CarState[] swapPassengers(Car that, CarState thisState, CarState thatState, int[] move) {
+		int[][] seats = { new int[this.capacity], new int[this.capacity], new int[that.capacity],
+				new int[that.capacity] };
+		swapSeats(thisState, thatState, move, 0, seats);
+		return new CarState[] { this.evaluate(seats[0], seats[1], thisState.getRoute()),
+				that.evaluate(seats[2], seats[3], thatState.getRoute()) };
+	}
 
-		for (int i = 0; i < dirtyRoute.length; i++)
-			if (picksDropsGraph[dirtyRoute[i][0]][dirtyRoute[i][1]] == LittlesAlgorithm.INF3) {
-				end = dirtyRoute[i][0];
-				start = dirtyRoute[i][1];
-				dirtyRoute[i][0] = dirtyRoute[i][1] = -1;
-				break;
+	/**
+	 * Replaces snapshots of both cars if they are still expected ones. Monitors
+	 * of the cars are taken in order of their ids, so concurrent commits never
+	 * deadlock.
+	 * 
+	 * @return whether the snapshots are replaced
+	 */
+	private static boolean commit(Car first, CarState firstExpected, CarState firstState, Car second,
+			CarState secondExpected, CarState secondState) {
+		Car lower = first.id < second.id ? first : second;
+		Car higher = first.id < second.id ? second : first;
+
+		synchronized (lower) {
+			synchronized (higher) {
+				if (first.state.get() != firstExpected || second.state.get() != secondExpected)
+					return false;
+
+				first.state.set(firstState);
+				second.state.set(secondState);
+				return true;
 			}
+		}
+	}
 
-		for (int i = 0; start != end; i++)
-			for (int j = 0; j < dirtyRoute.length; j++)
-				if (dirtyRoute[j][0] == start) {
-					cleanRoute[i][0] = start < distinctPicksLength ? //
-							distinctPicks[start] : draftDrops[start - distinctPicksLength];
-
-					start = dirtyRoute[j][1];
-					cleanRoute[i][1] = start < distinctPicksLength ? //
-							distinctPicks[start] : draftDrops[start - distinctPicksLength];
-					break;
-				}
+	/**
+	 * Each second / meter beyond the limit is multiplied by 100
+	 */
+	private int getPathLengthWithPenalty(CarState carState) {
+		return getPathLengthWithPenalty(carState.getPathLength());
+	}
 
-		return cleanRoute;
+	private int getPathLengthWithPenalty(int pathLength) {
+		int diff = pathLength - maxLength;
+		return pathLength + (diff > 0 ? diff * 100 : 0);
 	}
 
 	/**
-	 * Copies pathLength, seats, picks, drops, route values from draft to fair</br>
-	 * Must be called when better result is achieved during the mix operation
+	 * 1. Shifts empty seats to the right</br>
+	 * 2. Builds Hamiltonian Path with the help of route cache and route solver
+	 * 
+	 * @param picks
+	 *            -- array which becomes owned by the new snapshot
+	 * @param drops
+	 *            -- array which becomes owned by the new snapshot
+	 * @param fairRoute
+	 *            -- route of the current snapshot to seed the solver, or null
+	 * @return evaluated snapshot
 	 */
-	private void copyFromDraftToFair() {
-		fairPathLength = draftPathLength;
-		fairSeats = draftSeats;
+	private CarState evaluate(int[] picks, int[] drops, int[][] fairRoute) {
+		int seats = shiftEmptySeats(picks, drops);
 
-		System.arraycopy(draftPicks, 0, fairPicks, 0, capacity);
-		System.arraycopy(draftDrops, 0, fairDrops, 0, capacity);
+		if (seats == 0)
+			return new CarState(picks, drops, 0, 0, new int[0][0]);
 
-		fairRoute = new int[draftRoute.length][2];
-		for (int i = 0; i < draftRoute.length; i++) {
-			fairRoute[i][0] = draftRoute[i][0];
-			fairRoute[i][1] = draftRoute[i][1];
-		}
+		if (seats == 1)
+			return new CarState(picks, drops, 1, globalMatrix[picks[0]][drops[0]],
+					new int[][] { { picks[0], drops[0] } });
+
+		RouteCache cache = routeCache;
+		RouteCache.Route route = cache == null ? solvePickupDelivery(picks, drops, seats, fairRoute)
+				: cache.get(RouteCache.getPassengers(picks, drops, seats),
+						() -> solvePickupDelivery(picks, drops, seats, fairRoute));
+
+		return new CarState(picks, drops, seats, route.getLength(), route.getRoute());
 	}
 
 	/**
-	 * Copies pathLength, seats, picks, drops, route values from fair to draft </br>
-	 * Must be called when better result isn't achieved during the mix operation
+	 * Shifts empty cells of picks and drops arrays to the right:</br>
+	 * {-1, 1, 2, -1} -> {1, 2, -1, -1}</br>
+	 * 
+	 * @return number of passengers
 	 */
-	private void copyFromFairToDraft() {
-		draftPathLength = fairPathLength;
-		draftSeats = fairSeats;
+	private int shiftEmptySeats(int[] picks, int[] drops) {
+		int seats = 0;
+		for (int i = 0; i < capacity; i++)
+			if (picks[i] >= 0) {
+				picks[seats] = picks[i];
+				drops[seats++] = drops[i];
+			}
 
-		System.arraycopy(fairPicks, 0, draftPicks, 0, capacity);
-		System.arraycopy(fairDrops, 0, draftDrops, 0, capacity);
+		Arrays.fill(picks, seats, capacity, -1);
+		Arrays.fill(drops, seats, capacity, -1);
+		return seats;
+	}
 
-		draftRoute = new int[fairRoute.length][2];
-		for (int i = 0; i < fairRoute.length; i++) {
-			draftRoute[i][0] = fairRoute[i][0];
-			draftRoute[i][1] = fairRoute[i][1];
-		}
+	private RouteCache.Route solvePickupDelivery(int[] picks, int[] drops, int seats, int[][] fairRoute) {
+		Workspace workspace = WORKSPACES.get();
+		workspace.combinePicksAndDrops(globalMatrix, picks, drops, seats);
+
+		int size = seats + workspace.distinctPicksLength;
+		RouteSolution solution = routeSolver.solve(workspace.picksDropsGraph, size, workspace.predecessors,
+				workspace.getFairPath(fairRoute, drops, size));
+		return new RouteCache.Route(solution.getLength(), workspace.getRoute(solution.getPath(), drops));
 	}
 
 	/**
-	 * @return draft data in string format</br>
+	 * @return current data in string format</br>
 	 *         <b>For debug only</b>
 	 */
 	@Override
 	public String toString() {
+		CarState current = state.get();
 		StringBuilder sb = new StringBuilder("\n===================== CAR =====================\n");
 		sb.append("Capacity: " + capacity);
-		sb.append("\nSeats occupied: " + draftSeats);
-		sb.append("\nPath length: " + draftPathLength);
+		sb.append("\nSeats occupied: " + current.getSeats());
+		sb.append("\nPath length: " + current.getPathLength());
 
 		sb.append("\nPick up locations indexes: ");
 		for (int i = 0; i < capacity; i++, sb.append("  "))
-			sb.append(draftPicks[i]);
+			sb.append(current.getPicks()[i]);
 
 		sb.append("\nDrop off locations indexes: ");
 		for (int i = 0; i < capacity; i++, sb.append("  "))
-			sb.append(draftDrops[i]);
+			sb.append(current.getDrops()[i]);
 
-		if (fairRoute != null) {
+		if (current.isEvaluated()) {
 			sb.append("\nSuggested route: ");
-			for (int i = 0; i < draftRoute.length; i++, sb.append("  "))
-				sb.append("[").append(draftRoute[i][0]).append(" ").append(draftRoute[i][1]).append("]");
+			for (int i = 0; i < current.getRoute().length; i++, sb.append("  "))
+				sb.append("[").append(current.getRoute()[i][0]).append(" ").append(current.getRoute()[i][1]).append("]");
 		}
 
 		return sb.append("\n===============================================").toString();
 	}
 
+	/**
+	 * Builds moves of two cars into workspace
+	 */
+	@FunctionalInterface
+	private interface Neighbourhood {
+
+		/**
+		 * @param from
+		 *            -- number of moves which are already in the buffer
+		 * @return number of moves written into {@link Workspace#getMoves(int)}
+		 *         after the existing ones
+		 */
+		int getMoves(CarState thisState, CarState thatState, Workspace workspace, int from);
+	}
+
+	/**
+	 * Per-thread buffers for moves estimation and for the graph of one car.
+	 * Buffers grow only if more moves or a car of bigger capacity is
+	 * evaluated.
+	 */
+	private static class Workspace {
+
+		private int[][] picksDropsGraph = new int[0][0];
+		private int[] distinctPicks = new int[0];
+		private long[] predecessors = new long[0];
+		private int distinctPicksLength;
+
+		private int[] moves = new int[0];
+		private long[] gains = new long[0];
+		private int[][] seats = { new int[0], new int[0], new int[0], new int[0] };
+		private int[] sequence = new int[0];
+
+		/**
+		 * @return buffer for the moves in format of {@link Car#swapSeats}, the
+		 *         moves which are already in the buffer are kept
+		 */
+		private int[] getMoves(int count) {
+			if (moves.length < count * MOVE_SIZE)
+				moves = Arrays.copyOf(moves, count * MOVE_SIZE);
+			return moves;
+		}
+
+		private long[] getGains(int count) {
+			if (gains.length < count)
+				gains = new long[count];
+			return gains;
+		}
+
+		/**
+		 * @return picks and drops of this car, then picks and drops of that car,
+		 *         of exactly the cars' capacities
+		 */
+		private int[][] getSeats(int thisCapacity, int thatCapacity) {
+			if (seats[0].length != thisCapacity)
+				seats[0] = new int[thisCapacity];
+			if (seats[1].length != thisCapacity)
+				seats[1] = new int[thisCapacity];
+			if (seats[2].length != thatCapacity)
+				seats[2] = new int[thatCapacity];
+			if (seats[3].length != thatCapacity)
+				seats[3] = new int[thatCapacity];
+			return seats;
+		}
+
+		private int[] getSequence(int length) {
+			if (sequence.length < length)
+				sequence = new int[length];
+			return sequence;
+		}
+
+		/**
+		 * Builds graph using Global Matrix data:</br>
+		 * - from each pick up location to each pick up location</br>
+		 * - from each pick up location to each drop off location</br>
+		 * - from each drop off location to each pick up location</br>
+		 * - from each drop off location to each drop off location</br>
+		 * 
+		 * Each drop off location has all the pick up locations as predecessors. It
+		 * makes route go straight from picks to drops
+		 */
+		private void combinePicksAndDrops(int[][] globalMatrix, int[] picks, int[] drops, int seats) {
+			if (distinctPicks.length < picks.length) {
+				picksDropsGraph = new int[2 * picks.length][2 * picks.length];
+				distinctPicks = new int[picks.length];
+				predecessors = new long[2 * picks.length];
+			}
+
+			distinctPicks[0] = picks[0];
+			distinctPicksLength = 1;
+
+			loop: for (int i = 1; i < seats; i++) {
+				for (int j = 0; j < distinctPicksLength; j++)
+					if (distinctPicks[j] == picks[i])
+						continue loop;
+				distinctPicks[distinctPicksLength++] = picks[i];
+			}
+
+			for (int i = 0; i < distinctPicksLength; i++)
+				for (int j = 0; j < distinctPicksLength; j++)
+					picksDropsGraph[i][j] = globalMatrix[distinctPicks[i]][distinctPicks[j]];
+
+			for (int i = 0; i < distinctPicksLength; i++)
+				for (int j = 0; j < seats; j++)
+					picksDropsGraph[i][j + distinctPicksLength] = globalMatrix[distinctPicks[i]][drops[j]];
+
+			for (int i = 0; i < seats; i++)
+				for (int j = 0; j < distinctPicksLength; j++)
+					picksDropsGraph[i + distinctPicksLength][j] = globalMatrix[drops[i]][distinctPicks[j]];
+
+			for (int i = 0; i < seats; i++)
+				for (int j = 0; j < seats; j++)
+					picksDropsGraph[i + distinctPicksLength][j + distinctPicksLength] = //
+							globalMatrix[drops[i]][drops[j]];
+
+			Arrays.fill(predecessors, 0, distinctPicksLength, 0);
+			Arrays.fill(predecessors, distinctPicksLength, distinctPicksLength + seats, //
+					(1L << distinctPicksLength) - 1);
+		}
+
+		/**
+		 * @return fair route as path of picksDropsGraph nodes to seed the
+		 *         solver</br>
+		 *         null if fair route doesn't visit exactly the same picks and drops
+		 */
+		private int[] getFairPath(int[][] fairRoute, int[] drops, int size) {
+			if (fairRoute == null || fairRoute.length != size - 1)
+				return null;
+
+			int[] path = new int[size];
+			boolean[] visited = new boolean[size];
+
+			for (int i = 0; i < size; i++) {
+				int point = i == 0 ? fairRoute[0][0] : fairRoute[i - 1][1];
+				path[i] = -1;
+
+				for (int j = 0; j < size && path[i] < 0; j++)
+					if (!visited[j] && point == getPoint(j, drops))
+						visited[path[i] = j] = true;
+
+				if (path[i] < 0)
+					return null;
+			}
+
+			return path;
+		}
+
+		/**
+		 * @param path
+		 *            -- result of route solver
+		 * @return integer array of format [1,1] [1,2] [2,3]</br>
+		 *         each pick up and drop off location is visited in proper order
+		 */
+		private int[][] getRoute(int[] path, int[] drops) {
+			int[][] route = new int[path.length - 1][2];
+			for (int i = 0; i < route.length; i++) {
+				route[i][0] = getPoint(path[i], drops);
+				route[i][1] = getPoint(path[i + 1], drops);
+			}
+			return route;
+		}
+
+		/**
+		 * @return index of picksDropsGraph node in Global Matrix
+		 */
+		private int getPoint(int node, int[] drops) {
+			return node < distinctPicksLength ? distinctPicks[node] : drops[node - distinctPicksLength];
+		}
+	}
+
 }
@@ -0,0 +1,65 @@
+package com.asemenkov.carpool.logistics.services.algorithms;
+
+/**
+ * Immutable snapshot of passengers of {@link Car} and their route. Snapshots
+ * are shared between threads, so the arrays must never be altered after
+ * construction.
+ * 
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+public final class CarState {
+
+	private final int[] picks;
+	private final int[] drops;
+	private final int seats;
+	private final int pathLength;
+	private final int[][] route;
+
+	/**
+	 * @param route
+	 *            -- route in format of {@link Car#getSuggestedRoute()}, or null
+	 *            if the route isn't found yet
+	 */
+	CarState(int[] picks, int[] drops, int seats, int pathLength, int[][] route) {
+		this.picks = picks;
+		this.drops = drops;
+		this.seats = seats;
+		this.pathLength = pathLength;
+		this.route = route;
+	}
+
+	/**
+	 * @return Array of pick up Location indexes (relates to Global Matrix)
+	 */
+	public int[] getPicks() {
+		return picks;
+	}
+
+	/**
+	 * @return Array of drop off Location indexes (relates to Global Matrix)
+	 */
+	public int[] getDrops() {
+		return drops;
+	}
+
+	public int getSeats() {
+		return seats;
+	}
+
+	public int getPathLength() {
+		return pathLength;
+	}
+
+	public int[][] getRoute() {
+		return route;
+	}
+
+	/**
+	 * @return whether the route is found for these passengers
+	 */
+	public boolean isEvaluated() {
+		return route != null;
+	}
+
+}
@@ -0,0 +1,365 @@
+package com.asemenkov.carpool.logistics.services.algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Allocation-free engine of the Little's algorithm. The graph is kept in one
+ * flat array together with maps of active rows and columns. Instead of copying
+ * the graph for every branch, rows and columns are masked and edges are set to
+ * INF in place. Each alteration is pushed to the undo stack and restored when
+ * the branch is explored.</br>
+ *
+ * The branches are explored in the same order as in {@link LittlesAlgorithm},
+ * so the path length and the path cycle are the same.
+ *
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+public class FlatLittlesAlgorithm extends LittlesAlgorithm {
+
+	private static final int ROW_REDUCTION = 0;
+	private static final int COL_REDUCTION = 1;
+	private static final int CELL_ALTERATION = 2;
+	private static final int ROW_REMOVAL = 3;
+	private static final int COL_REMOVAL = 4;
+
+	private int[] matrix = new int[0];
+	private int[] rows = new int[0];
+	private int[] cols = new int[0];
+	private int[] cycle = new int[0];
+	private int[] bestEdges = new int[0];
+	private int[] undoStack = new int[192];
+	private int[] branchStack = new int[64];
+
+	private int size;
+	private int active;
+	private int cycleTop;
+	private int undoTop;
+	private int branchTop;
+
+	/**
+	 * Builds Hamiltonian Cycle for copy of argument matrix. Initial matrix is not
+	 * altered. Diagonal elements are set to INF, so preset is not required.
+	 * Buffers are reused between invocations and grow only if bigger graph is
+	 * passed.
+	 *
+	 * @param graph
+	 *            -- square matrix at least 2x2
+	 * @param size
+	 *            -- size of matrix, must be less or equals origin matrix sizes
+	 * @param tour
+	 *            -- known tour as array of nodes in the order of visiting, or null
+	 */
+	@Override
+	public void findHamiltonianCycle(int[][] graph, int size, int[] tour) {
+		startSearch(graph, size, tour);
+		int seedPath = bestPath;
+		loadGraph(graph, size);
+		recursiveHamiltonianCycle(0);
+
+		if (bestPath < seedPath) {
+			bestCycle = new int[size][2];
+			for (int i = 0; i < size; i++) {
+				bestCycle[i][0] = bestEdges[2 * i];
+				bestCycle[i][1] = bestEdges[2 * i + 1];
+			}
+		}
+		finishSearch(graph, size);
+	}
+
+	/**
+	 * Copies graph into flat matrix, sets diagonal elements to INF, resets row and
+	 * column maps and all the stacks
+	 */
+	private void loadGraph(int[][] graph, int size) {
+		if (rows.length < size) {
+			matrix = new int[size * size];
+			rows = new int[size];
+			cols = new int[size];
+			cycle = new int[2 * size];
+			bestEdges = new int[2 * size];
+		}
+
+		this.size = active = size;
+		cycleTop = undoTop = branchTop = 0;
+
+		for (int i = 0; i < size; i++) {
+			System.arraycopy(graph[i], 0, matrix, i * size, size);
+			matrix[i * size + i] = INF1;
+			rows[i] = cols[i] = i;
+		}
+	}
+
+	/**
+	 * Flat equivalent of the recursive step of {@link LittlesAlgorithm}:</br>
+	 * 1. Reduces rows and columns, stops the branch if it can't give better
+	 * cycle</br>
+	 * 2. Saves the cycle if 2x2 matrix is reached</br>
+	 * 3. Pushes coordinates of '0' elements with the maximum Little's sum to the
+	 * branch stack</br>
+	 * 4. For each coordinate, removes row and column, explores the branch and
+	 * restores them</br>
+	 * 5. For each coordinate, discards the edge, explores the branch and restores
+	 * it</br>
+	 * 6. Restores all the reductions made in this step
+	 *
+	 * @param bound
+	 *            -- accumulated length of the Cycle
+	 */
+	private void recursiveHamiltonianCycle(int bound) {
+		int undoMark = undoTop;
+		int delta;
+
+		if (isBudgetExhausted(++exploredNodes))
+			return;
+
+		if ((delta = subtractMinElementInEachRow()) == INF2 || (bound += delta) >= bestPath
+				|| (delta = subtractMinElementInEachCol()) == INF2 || (bound += delta) >= bestPath) {
+			undo(undoMark);
+			return;
+		}
+
+		if (active == 2) {
+			saveBestCycle(bound);
+			undo(undoMark);
+			return;
+		}
+
+		int branchMark = branchTop;
+		pushCoordsOfMaxLittlesSums();
+
+		for (int i = branchMark; i < branchTop; i += 2) {
+			int mark = undoTop;
+			cycle[cycleTop++] = rows[branchStack[i]];
+			cycle[cycleTop++] = cols[branchStack[i + 1]];
+			removeRowAndColumn(branchStack[i], branchStack[i + 1]);
+			setInfToPreventFromEarlyShortage();
+			recursiveHamiltonianCycle(bound);
+			undo(mark);
+			cycleTop -= 2;
+		}
+
+		for (int i = branchMark; i < branchTop; i += 2) {
+			int mark = undoTop;
+			alterCell(rows[branchStack[i]] * size + cols[branchStack[i + 1]], INF2);
+			recursiveHamiltonianCycle(bound);
+			undo(mark);
+		}
+
+		branchTop = branchMark;
+		undo(undoMark);
+	}
+
+	/**
+	 * Takes the last two '0' elements of 2x2 matrix as two final edges. The edges
+	 * are stored in the same order as {@link LittlesAlgorithm} does: final edges
+	 * first, then accumulated edges from the latest to the earliest.
+	 */
+	private void saveBestCycle(int bound) {
+		int index = 0;
+
+		for (int i = active - 1; i >= 0 && index < 4; i--)
+			for (int j = active - 1; j >= 0 && index < 4; j--)
+				if (matrix[rows[i] * size + cols[j]] == 0) {
+					bestEdges[index++] = rows[i];
+					bestEdges[index++] = cols[j];
+				}
+
+		for (int i = cycleTop - 2; i >= 0; i -= 2) {
+			bestEdges[index++] = cycle[i];
+			bestEdges[index++] = cycle[i + 1];
+		}
+
+		bestPath = bound;
+	}
+
+	/**
+	 * Subtracts minimum element of each active row from all the elements of this
+	 * row. Each reduction is pushed to the undo stack.
+	 *
+	 * @return sum of the minimum elements or INF2 if any row can't be reduced
+	 */
+	private int subtractMinElementInEachRow() {
+		int min, base, toReturn = 0;
+
+		for (int i = 0; i < active; toReturn += min, i++) {
+			base = rows[i] * size;
+			min = matrix[base + cols[0]];
+			for (int j = 1; j < active && min != 0; j++)
+				if (matrix[base + cols[j]] < min)
+					min = matrix[base + cols[j]];
+
+			if (min == 0)
+				continue;
+			if (min > TENDS_TO_INF2)
+				return INF2;
+
+			for (int j = 0; j < active; j++)
+				matrix[base + cols[j]] -= min;
+			push(ROW_REDUCTION, rows[i], min);
+		}
+
+		return toReturn;
+	}
+
+	/**
+	 * Subtracts minimum element of each active column from all the elements of
+	 * this column. Each reduction is pushed to the undo stack.
+	 *
+	 * @return sum of the minimum elements or INF2 if any column can't be reduced
+	 */
+	private int subtractMinElementInEachCol() {
+		int min, col, toReturn = 0;
+
+		for (int i = 0; i < active; toReturn += min, i++) {
+			col = cols[i];
+			min = matrix[rows[0] * size + col];
+			for (int j = 1; j < active && min != 0; j++)
+				if (matrix[rows[j] * size + col] < min)
+					min = matrix[rows[j] * size + col];
+
+			if (min == 0)
+				continue;
+			if (min > TENDS_TO_INF2)
+				return INF2;
+
+			for (int j = 0; j < active; j++)
+				matrix[rows[j] * size + col] -= min;
+			push(COL_REDUCTION, col, min);
+		}
+
+		return toReturn;
+	}
+
+	/**
+	 * Calculates Little's sum for each '0' element in row-major order and pushes
+	 * positions of the elements with the maximum sum to the branch stack
+	 */
+	private void pushCoordsOfMaxLittlesSums() {
+		int branchMark = branchTop;
+		int max = 0, sum, minInRow, minInCol;
+		boolean found = false;
+
+		for (int i = 0; i < active; i++)
+			for (int j = 0; j < active; j++) {
+				if (matrix[rows[i] * size + cols[j]] != 0)
+					continue;
+
+				minInRow = minInCol = INF1;
+				for (int k = 0; k < active; k++)
+					if (k != j && matrix[rows[i] * size + cols[k]] < minInRow)
+						minInRow = matrix[rows[i] * size + cols[k]];
+				for (int k = 0; k < active; k++)
+					if (k != i && matrix[rows[k] * size + cols[j]] < minInCol)
+						minInCol = matrix[rows[k] * size + cols[j]];
+
+				sum = minInRow + minInCol;
+				if (found && sum < max)
+					continue;
+				if (!found || sum > max) {
+					branchTop = branchMark;
+					max = sum;
+					found = true;
+				}
+
+				ensureBranchStackCapacity();
+				branchStack[branchTop++] = i;
+				branchStack[branchTop++] = j;
+			}
+	}
+
+	/**
+	 * Masks row and column at the specified positions, keeping the order of the
+	 * remaining rows and columns
+	 */
+	private void removeRowAndColumn(int rowPosition, int colPosition) {
+		push(ROW_REMOVAL, rowPosition, rows[rowPosition]);
+		push(COL_REMOVAL, colPosition, cols[colPosition]);
+		System.arraycopy(rows, rowPosition + 1, rows, rowPosition, active - rowPosition - 1);
+		System.arraycopy(cols, colPosition + 1, cols, colPosition, active - colPosition - 1);
+		active--;
+	}
+
+	/**
+	 * If the active part of matrix contains row and column without INF1, it will
+	 * be set at the intersection. That helps to avoid early shortage of the Cycle.
+	 */
+	private void setInfToPreventFromEarlyShortage() {
+		int row = 0;
+		rows: for (; row < active; row++) {
+			for (int i = 0; i < active; i++)
+				if (matrix[rows[row] * size + cols[i]] > TENDS_TO_INF1)
+					continue rows;
+			break;
+		}
+
+		if (row == active)
+			return;
+
+		int col = 0;
+		cols: for (; col < active; col++) {
+			for (int i = 0; i < active; i++)
+				if (matrix[rows[i] * size + cols[col]] > TENDS_TO_INF1)
+					continue cols;
+			break;
+		}
+
+		if (col == active)
+			return;
+
+		alterCell(rows[row] * size + cols[col], INF1);
+	}
+
+	private void alterCell(int index, int value) {
+		push(CELL_ALTERATION, index, matrix[index]);
+		matrix[index] = value;
+	}
+
+	private void push(int kind, int a, int b) {
+		if (undoTop + 3 > undoStack.length)
+			undoStack = Arrays.copyOf(undoStack, undoStack.length * 2);
+		undoStack[undoTop++] = kind;
+		undoStack[undoTop++] = a;
+		undoStack[undoTop++] = b;
+	}
+
+	private void ensureBranchStackCapacity() {
+		if (branchTop + 2 > branchStack.length)
+			branchStack = Arrays.copyOf(branchStack, branchStack.length * 2);
+	}
+
+	/**
+	 * Pops alterations from the undo stack and reverts them until the mark is
+	 * reached
+	 */
+	private void undo(int mark) {
+		while (undoTop > mark) {
+			int b = undoStack[--undoTop];
+			int a = undoStack[--undoTop];
+
+			switch (undoStack[--undoTop]) {
+			case ROW_REDUCTION:
+				for (int j = 0; j < active; j++)
+					matrix[a * size + cols[j]] += b;
+				break;
+			case COL_REDUCTION:
+				for (int j = 0; j < active; j++)
+					matrix[rows[j] * size + a] += b;
+				break;
+			case CELL_ALTERATION:
+				matrix[a] = b;
+				break;
+			case ROW_REMOVAL:
+				System.arraycopy(rows, a, rows, a + 1, active - a);
+				rows[a] = b;
+				active++;
+				break;
+			case COL_REMOVAL:
+				System.arraycopy(cols, a, cols, a + 1, active - a);
+				cols[a] = b;
+				break;
+			}
+		}
+	}
+
+}
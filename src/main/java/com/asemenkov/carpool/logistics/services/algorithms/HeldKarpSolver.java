@@ -0,0 +1,99 @@
+package com.asemenkov.carpool.logistics.services.algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Held-Karp dynamic programming over subsets of nodes for the shortest
+ * Hamiltonian Path with precedence constraints. It takes O(2^n * n^2) steps
+ * regardless of the graph, so the time is predictable for small graphs, e.g.
+ * car routes of up to 8 pick up and drop off locations.</br>
+ *
+ * Tables are reused between invocations and grow only if bigger graph is
+ * passed.
+ *
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+public class HeldKarpSolver extends PickupDeliverySolver {
+
+	public static final int MAX_SIZE = 12;
+
+	private static final int INF = Integer.MAX_VALUE;
+
+	private int[] lengths = new int[0];
+	private byte[] parents = new byte[0];
+
+	/**
+	 * Builds the shortest Hamiltonian Path. Initial matrix is not altered.
+	 *
+	 * @param graph
+	 *            -- square matrix at least 1x1
+	 * @param size
+	 *            -- size of matrix, must be less or equals origin matrix sizes
+	 *            and {@link #MAX_SIZE}
+	 * @param predecessors
+	 *            -- bit mask of nodes, which must be visited before each node
+	 * @param start
+	 *            -- the first node of the path, or -1 for any node
+	 * @param knownPath
+	 *            -- ignored, there are no branches to cut off
+	 */
+	@Override
+	public void findHamiltonianPath(int[][] graph, int size, long[] predecessors, int start, int[] knownPath) {
+		if (size < 1 || size > MAX_SIZE)
+			throw new IllegalArgumentException("Size of graph must be in range [1, " + MAX_SIZE + "]: " + size);
+		if (start >= size || start >= 0 && predecessors[start] != 0)
+			throw new IllegalArgumentException("Path can't start at node " + start);
+
+		int allNodes = (1 << size) - 1;
+		if (lengths.length < (allNodes + 1) * size) {
+			lengths = new int[(allNodes + 1) * size];
+			parents = new byte[(allNodes + 1) * size];
+			bestPath = new int[size];
+		}
+
+		Arrays.fill(lengths, 0, (allNodes + 1) * size, INF);
+		this.size = size;
+		this.exploredNodes = 0;
+
+		for (int node = 0; node < size; node++)
+			if (start < 0 ? predecessors[node] == 0 : node == start)
+				lengths[(1 << node) * size + node] = 0;
+
+		for (int visited = 1; visited < allNodes; visited++)
+			for (int last = 0; last < size; last++) {
+				int length = lengths[visited * size + last];
+				if (length == INF)
+					continue;
+
+				exploredNodes++;
+				for (int node = 0; node < size; node++) {
+					if ((visited >>> node & 1) != 0 || (predecessors[node] & ~visited) != 0)
+						continue;
+
+					int index = (visited | 1 << node) * size + node;
+					if (length + graph[last][node] < lengths[index]) {
+						lengths[index] = length + graph[last][node];
+						parents[index] = (byte) last;
+					}
+				}
+			}
+
+		int last = -1;
+		bestLength = INF;
+		for (int node = 0; node < size; node++)
+			if (lengths[allNodes * size + node] < bestLength)
+				bestLength = lengths[allNodes * size + (last = node)];
+
+		if (last < 0)
+			throw new IllegalArgumentException("Precedence constraints can't be satisfied");
+
+		for (int visited = allNodes, depth = size - 1; depth >= 0; depth--) {
+			bestPath[depth] = last;
+			int parent = parents[visited * size + last];
+			visited &= ~(1 << last);
+			last = parent;
+		}
+	}
+
+}
@@ -1,6 +1,7 @@
 package com.asemenkov.carpool.logistics.services.algorithms;
 
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Algorithm for partition of graph
@@ -9,37 +10,48 @@ import java.util.Arrays;
  * @since Feb 14, 2018
  */
 @SuppressWarnings({ "rawtypes", "unchecked" })
-public class KernighanLinAlgorithm<T> {
+public class KernighanLinAlgorithm<T> implements MixingAlgorithm {
 
 	private static final int MAX_ITERATION = 100;
 	private final Mixable[] mixables;
+	private ForkJoinPool pool = ForkJoinPool.commonPool();
 
 	public KernighanLinAlgorithm(Mixable[] mixables) {
 		this.mixables = mixables;
 	}
 
+	@Override
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
 	/**
 	 * If only 1 Mixable provided, finds its Hamiltonian path and returns</br>
 	 * 
 	 * If 2+ Mixables provided:</br>
-	 * 1. Splits them into all possible pairs not counting rearrangements</br>
-	 * 2. For each pair, swaps items between these 2 Mixables</br>
+	 * 1. Splits all possible pairs into rounds of disjoint pairs</br>
+	 * 2. For each pair, swaps pairs of items, relocates one item and swaps one
+	 * item for one item between these 2 Mixables. Pairs of one round
+	 * are mixed in parallel, the next round starts when the previous one is
+	 * finished</br>
 	 * 3. While total result after swaps is better, continues iterations</br>
 	 * 4. If total result isn't being changed for 2+ iterations, breaks it</br>
 	 * 5. If total result is becoming bigger too often, throws exception
 	 */
+	@Override
 	public void mix() {
 		if (mixables.length == 1) {
 			mixables[0].mixOneItem();
 			return;
 		}
 
-		Mixable[][] pairs = splitIntoPairs();
+		Mixable[][][] rounds = splitIntoRounds(mixables);
 
 		int latestResult = Integer.MAX_VALUE, standstillResult = 0, biggerResult = 0, diff;
 
 		for (int i = 0, newResult; i < MAX_ITERATION; i++) {
-			Arrays.stream(pairs).parallel().forEach(p -> p[0].mixTwoItems(p[1]));
+			for (Mixable[][] round : rounds)
+				pool.submit(() -> Arrays.stream(round).parallel().forEach(this::mixPair)).join();
 			newResult = Arrays.stream(mixables).mapToInt(Mixable::getMixResult).sum();
 
 			diff = newResult - latestResult;
@@ -62,21 +74,50 @@ public class KernighanLinAlgorithm<T> {
 	}
 
 	/**
-	 * Splits all Mixables into pairs,</br>
-	 * without rearrangements and without pairing Mixable with itself
+	 * Pairs of items are swapped first, then single items are relocated and
+	 * swapped, which may empty one of the Mixables
+	 */
+	private void mixPair(Mixable[] pair) {
+		pair[0].mixTwoItems(pair[1]);
+		pair[0].relocateOneItem(pair[1]);
+		pair[0].swapOneItem(pair[1]);
+	}
+
+	/**
+	 * Splits all Mixables into pairs with circle method: the first Mixable stays
+	 * in place, the rest rotate around it, and each round pairs opposite
+	 * positions. If number of Mixables is odd, the Mixable opposite to the empty
+	 * position skips the round.</br>
 	 * 
-	 * @return Mixables matrix of size [num_of_pairs x 2]</br>
-	 *         where num_of_pairs = ((num_of_Mixables)^2 - num_of_Mixables) / 2
+	 * Each Mixable appears at most once per round, and each pair appears exactly
+	 * once in all the rounds, without rearrangements and without pairing Mixable
+	 * with itself
+	 * 
+	 * @return Mixables matrix of size [num_of_rounds x num_of_pairs x 2]</br>
+	 *         where num_of_rounds = num_of_positions - 1, num_of_pairs =
+	 *         num_of_Mixables / 2 and num_of_positions is num_of_Mixables
+	 *         rounded up to even
 	 */
-	private Mixable[][] splitIntoPairs() {
-		int length = mixables.length;
-		Mixable[][] toReturn = new Mixable[(length * length - length) / 2][2];
-
-		for (int i = 0, index = 0; i < length; i++)
-			for (int j = i + 1; j < length; j++, index++) {
-				toReturn[index][0] = mixables[i];
-				toReturn[index][1] = mixables[j];
+	static Mixable[][][] splitIntoRounds(Mixable[] mixables) {
+		int positions = mixables.length + mixables.length % 2;
+		Mixable[][][] toReturn = new Mixable[positions - 1][mixables.length / 2][2];
+		int[] circle = new int[positions];
+
+		for (int round = 0; round < positions - 1; round++) {
+			circle[0] = 0;
+			for (int i = 1; i < positions; i++)
+				circle[i] = 1 + (i - 1 + round) % (positions - 1);
+
+			for (int i = 0, index = 0; i < positions / 2; i++) {
+				int one = Math.min(circle[i], circle[positions - 1 - i]);
+				int another = Math.max(circle[i], circle[positions - 1 - i]);
+
+				if (another < mixables.length) {
+					toReturn[round][index][0] = mixables[one];
+					toReturn[round][index++][1] = mixables[another];
+				}
 			}
+		}
 
 		return toReturn;
 	}
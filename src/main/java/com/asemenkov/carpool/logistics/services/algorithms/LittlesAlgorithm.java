@@ -1,5 +1,7 @@
 package com.asemenkov.carpool.logistics.services.algorithms;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * An algorithm for the traveling salesman problem
  * 
@@ -16,9 +18,17 @@ public class LittlesAlgorithm {
 	public static final int TENDS_TO_INF2 = 100000000;
 	public static final int TENDS_TO_INF3 = 1000000;
 
-	private int[][] bestCycle;
-	private int bestPath;
-	private int stepDelta;
+	public static final int WARM_START_MIN_SIZE = 4;
+
+	protected int[][] bestCycle;
+	protected int bestPath;
+	protected long exploredNodes;
+	protected boolean warmStart;
+
+	protected volatile boolean optimal;
+	protected long timeBudgetNanos;
+	protected long nodeBudget;
+	protected long deadline;
 
 	/**
 	 * Recursively builds Hamiltonian Cycle for copy of argument matrix. Reduces
@@ -45,10 +55,59 @@ public class LittlesAlgorithm {
 	 *            -- size of matrix, must be less or equals origin matrix sizes
 	 */
 	public void findHamiltonianCycle(int[][] graph, int size) {
-		bestCycle = null;
-		bestPath = INF1;
+		findHamiltonianCycle(graph, size, null);
+	}
+
+	/**
+	 * Recursively builds Hamiltonian Cycle for copy of argument matrix. The known
+	 * tour is used as initial upper bound, so the branches which can't beat it are
+	 * cut off from the very beginning. Initial matrix is not altered.
+	 * 
+	 * @param graph
+	 *            -- square matrix at least 2x2
+	 * @param size
+	 *            -- size of matrix, must be less or equals origin matrix sizes
+	 * @param tour
+	 *            -- known tour as array of nodes in the order of visiting, or null
+	 */
+	public void findHamiltonianCycle(int[][] graph, int size, int[] tour) {
+		startSearch(graph, size, tour);
 		int[][] indexedGraph = getIndexedGraph(graph, size);
 		recursiveHamiltonianCycle(indexedGraph, new int[0][2]);
+		finishSearch(graph, size);
+	}
+
+	/**
+	 * @param warmStart
+	 *            -- whether nearest neighbour tour improved by Or-opt is used as
+	 *            initial upper bound of every search without known tour
+	 */
+	public void setWarmStart(boolean warmStart) {
+		this.warmStart = warmStart;
+	}
+
+	/**
+	 * Limits every search by time and number of explored branches. When the
+	 * budget is exhausted, the best cycle found so far is returned and
+	 * {@link #isOptimal()} is false.
+	 * 
+	 * @param timeBudgetMillis
+	 *            -- maximum duration of one search, 0 for unlimited
+	 * @param nodeBudget
+	 *            -- maximum number of explored branches, 0 for unlimited
+	 */
+	public void setBudget(long timeBudgetMillis, long nodeBudget) {
+		this.timeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
+		this.nodeBudget = nodeBudget;
+	}
+
+	/**
+	 * @return true if the latest invocation of</br>
+	 *         {@link #findHamiltonianCycle(int[][], int)}</br>
+	 *         explored all the branches, so the cycle is the shortest one
+	 */
+	public boolean isOptimal() {
+		return optimal;
 	}
 
 	/**
@@ -68,6 +127,96 @@ public class LittlesAlgorithm {
 		return bestCycle;
 	}
 
+	/**
+	 * @return number of branches explored during the latest invocation of</br>
+	 *         {@link #findHamiltonianCycle(int[][], int)}
+	 */
+	public long getExploredNodes() {
+		return exploredNodes;
+	}
+
+	/**
+	 * Resets statistics, starts the clock of the budget and seeds the best cycle
+	 */
+	protected void startSearch(int[][] graph, int size, int[] tour) {
+		exploredNodes = 0;
+		optimal = true;
+		seedBestCycle(graph, size, tour);
+		deadline = System.nanoTime() + timeBudgetNanos;
+	}
+
+	/**
+	 * If the budget is exhausted before any cycle is found, takes the heuristic
+	 * tour, so the caller always gets a cycle
+	 */
+	protected void finishSearch(int[][] graph, int size) {
+		if (bestCycle != null || optimal)
+			return;
+
+		int[] tour = TourHeuristic.improveWithOrOpt(graph, TourHeuristic.getNearestNeighbourTour(graph, size));
+		bestPath = (int) Math.min(INF1, TourHeuristic.getTourLength(graph, tour));
+		bestCycle = TourHeuristic.toCycle(tour);
+	}
+
+	/**
+	 * The clock is checked on every 256th branch only, since System.nanoTime()
+	 * is much slower than the branch counter
+	 * 
+	 * @param nodes
+	 *            -- number of branches explored so far
+	 * @return true if the search must be stopped
+	 */
+	protected boolean isBudgetExhausted(long nodes) {
+		return isBudgetExhausted(nodes, (nodes & 0xFF) == 0);
+	}
+
+	/**
+	 * @param nodes
+	 *            -- number of branches explored so far
+	 * @param checkClock
+	 *            -- whether the time budget is checked as well
+	 * @return true if the search must be stopped
+	 */
+	protected boolean isBudgetExhausted(long nodes, boolean checkClock) {
+		if (!optimal)
+			return true;
+
+		if (nodeBudget > 0 && nodes > nodeBudget //
+				|| timeBudgetNanos > 0 && checkClock && System.nanoTime() - deadline > 0)
+			optimal = false;
+
+		return !optimal;
+	}
+
+	/**
+	 * Sets 'bestPath' and 'bestCycle' to the known tour improved by
+	 * {@link TourHeuristic}. The heuristic tour is built only if there is no known
+	 * tour, or it goes through INF edges. If there is no seed, they are set to
+	 * INF1 and null. Graphs smaller than {@link #WARM_START_MIN_SIZE} are solved
+	 * faster than the heuristic runs, so they aren't warm started.
+	 * 
+	 * @param tour
+	 *            -- known tour, ignored if it's not a permutation of graph nodes
+	 */
+	protected void seedBestCycle(int[][] graph, int size, int[] tour) {
+		bestCycle = null;
+		bestPath = INF1;
+
+		if (size < WARM_START_MIN_SIZE && tour == null)
+			return;
+
+		int[] seed = TourHeuristic.isTour(tour, size) ? TourHeuristic.improveWithOrOpt(graph, tour) : null;
+		if (seed != null && TourHeuristic.getTourLength(graph, seed) >= INF1)
+			seed = null;
+		if (seed == null && warmStart && size >= WARM_START_MIN_SIZE)
+			seed = TourHeuristic.improveWithOrOpt(graph, TourHeuristic.getNearestNeighbourTour(graph, size));
+
+		if (seed != null && TourHeuristic.getTourLength(graph, seed) < INF1) {
+			bestPath = (int) TourHeuristic.getTourLength(graph, seed);
+			bestCycle = TourHeuristic.toCycle(seed);
+		}
+	}
+
 	/**
 	 * @param graph
 	 *            -- square matrix at least 2x2
@@ -78,7 +227,7 @@ public class LittlesAlgorithm {
 	 *         for example: {0, 0, 1, 2, 3, 4, ..., (size - 1)} </br>
 	 *         diagonal elements are set to INF
 	 */
-	private int[][] getIndexedGraph(int[][] graph, int size) {
+	protected int[][] getIndexedGraph(int[][] graph, int size) {
 		int sizePlusOne = size + 1;
 		int[][] toReturn = new int[sizePlusOne][sizePlusOne];
 
@@ -138,20 +287,8 @@ public class LittlesAlgorithm {
 	 * @param cycle
 	 *            -- matrix of size nx2 where n = number of accumulated edges
 	 */
-	private void recursiveHamiltonianCycle(int[][] graph, int[][] cycle) {
-
-		if ((stepDelta = subtractMinElementInEachRow(graph)) == INF2)
-			return;
-
-		graph[0][0] += stepDelta;
-		if (graph[0][0] >= bestPath)
-			return;
-
-		if ((stepDelta = subtractMinElementInEachCol(graph)) == INF2)
-			return;
-
-		graph[0][0] += stepDelta;
-		if (graph[0][0] >= bestPath)
+	protected void recursiveHamiltonianCycle(int[][] graph, int[][] cycle) {
+		if (isBudgetExhausted(++exploredNodes) || !reduceGraph(graph))
 			return;
 
 		int[][] zerosCoords = findZerosCoordinates(graph);
@@ -177,6 +314,31 @@ public class LittlesAlgorithm {
 			recursiveHamiltonianCycle(branchedGraph[i], cycle);
 	}
 
+	/**
+	 * Steps 1-4 of {@link #recursiveHamiltonianCycle(int[][], int[][])}: reduces
+	 * rows and columns, accumulating subtracted elements in graph[0][0]
+	 * 
+	 * @param graph
+	 *            -- square matrix at least 3x3 with indexes and accumulated length
+	 * @return false if the branch cannot provide better cycle than the best one
+	 */
+	protected boolean reduceGraph(int[][] graph) {
+		int stepDelta;
+
+		if ((stepDelta = subtractMinElementInEachRow(graph)) == INF2)
+			return false;
+
+		graph[0][0] += stepDelta;
+		if (graph[0][0] >= bestPath)
+			return false;
+
+		if ((stepDelta = subtractMinElementInEachCol(graph)) == INF2)
+			return false;
+
+		graph[0][0] += stepDelta;
+		return graph[0][0] < bestPath;
+	}
+
 	/**
 	 * Adds one more edge to the previously accumulated ones. Must be invoked only
 	 * in case of removal of row and column from the graph.
@@ -189,7 +351,7 @@ public class LittlesAlgorithm {
 	 *            -- row and column which are removed in current recursive step
 	 * @return matrix of size (n+1)x2, where n = length of cycle.</br>
 	 */
-	private int[][] appendToCycle(int[][] graph, int[][] cycle, int[] coord) {
+	protected int[][] appendToCycle(int[][] graph, int[][] cycle, int[] coord) {
 		int[][] toReturn = new int[cycle.length + 1][2];
 		System.arraycopy(cycle, 0, toReturn, 1, cycle.length);
 		toReturn[0][0] = graph[coord[0]][0];
@@ -211,7 +373,7 @@ public class LittlesAlgorithm {
 	 *            -- row and column of the second '0' element
 	 * @return matrix of size (n+2)x2, where n = length of cycle.</br>
 	 */
-	private int[][] appendToCycle(int[][] graph, int[][] cycle, int[] coord0, int[] coord1) {
+	protected int[][] appendToCycle(int[][] graph, int[][] cycle, int[] coord0, int[] coord1) {
 		int[][] toReturn = new int[cycle.length + 2][2];
 		System.arraycopy(cycle, 0, toReturn, 2, cycle.length);
 		toReturn[0][0] = graph[coord0[0]][0];
@@ -231,7 +393,7 @@ public class LittlesAlgorithm {
 	 * 
 	 * @return sum of the minimum elements of each row
 	 */
-	private int subtractMinElementInEachRow(int[][] graph) {
+	protected int subtractMinElementInEachRow(int[][] graph) {
 		int min, toReturn = 0;
 
 		for (int i = 1; i < graph.length; toReturn += min, i++) {
@@ -257,7 +419,7 @@ public class LittlesAlgorithm {
 	 * 
 	 * @return sum of the minimum elements of each column
 	 */
-	private int subtractMinElementInEachCol(int[][] graph) {
+	protected int subtractMinElementInEachCol(int[][] graph) {
 		int min, toReturn = 0;
 
 		for (int i = 1; i < graph.length; toReturn += min, i++) {
@@ -318,7 +480,7 @@ public class LittlesAlgorithm {
 	 *            -- square matrix at least 3x3 with indexes and accumulated length
 	 * @return matrix of size nx2, where n = number of '0' elements found
 	 */
-	private int[][] findZerosCoordinates(int[][] graph) {
+	protected int[][] findZerosCoordinates(int[][] graph) {
 		int zeros = 0;
 		for (int i = 1; i < graph.length; i++)
 			for (int j = 1; j < graph.length; j++)
@@ -350,7 +512,7 @@ public class LittlesAlgorithm {
 	 *            each element must be not negative and less than the graph size
 	 * @return Little's sums array of size n, where n = number of '0' elements
 	 */
-	private int[] findLittlesSums(int[][] graph, int[][] coords) {
+	protected int[] findLittlesSums(int[][] graph, int[][] coords) {
 		int[] toReturn = new int[coords.length];
 		int minInRowI, minInColJ;
 
@@ -381,7 +543,7 @@ public class LittlesAlgorithm {
 	 *            -- Little's sums for each '0' element
 	 * @return coordinates matrix of size nx2, where n = number of maximum sums
 	 */
-	private int[][] filterCoordsLessThanMaxSum(int[][] coords, int[] sums) {
+	protected int[][] filterCoordsLessThanMaxSum(int[][] coords, int[] sums) {
 		int max = sums[0];
 		int count = 1;
 
@@ -418,7 +580,7 @@ public class LittlesAlgorithm {
 	 *         matrices represents original graph with the element at row and column
 	 *         intersection set to INF.</br>
 	 */
-	private int[][][] branchOutGraph(int[][] graph, int[][] coords) {
+	protected int[][][] branchOutGraph(int[][] graph, int[][] coords) {
 		int[][][] branchedGraph = new int[coords.length + coords.length][][];
 		for (int i = 0, j = coords.length; i < coords.length; i++, j++) {
 			branchedGraph[i] = removeRowAndColumnByCoords(graph, coords[i]);
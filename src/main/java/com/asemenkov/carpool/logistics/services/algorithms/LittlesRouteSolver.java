@@ -0,0 +1,99 @@
+package com.asemenkov.carpool.logistics.services.algorithms;
+
+import java.util.function.Supplier;
+
+/**
+ * {@link RouteSolver} backed by {@link LittlesAlgorithm}. Littles algorithm
+ * builds cycles, so the path is encoded as a cycle:</br>
+ * - without constraints, fake node with zero edges closes the path;</br>
+ * - if all the constrained nodes must follow all the free nodes (drops follow
+ * picks), edges from constrained to free nodes are set to INF3, and the only
+ * such edge of the cycle closes the path.</br>
+ *
+ * Other constraints are not supported. Engines keep their state between
+ * invocations, so each thread gets its own engine.
+ *
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+public class LittlesRouteSolver implements RouteSolver {
+
+	private final ThreadLocal<LittlesAlgorithm> engines;
+
+	public LittlesRouteSolver(Supplier<? extends LittlesAlgorithm> supplier) {
+		this.engines = ThreadLocal.withInitial(supplier);
+	}
+
+	@Override
+	public RouteSolution solve(int[][] matrix, int size, long[] predecessors, int[] knownPath) {
+		long free = 0;
+		for (int node = 0; node < size; node++)
+			if (predecessors[node] == 0)
+				free |= 1L << node;
+
+		for (int node = 0; node < size; node++)
+			if (predecessors[node] != 0 && predecessors[node] != free)
+				throw new IllegalArgumentException("Littles algorithm supports only 'all picks before drops' constraints");
+
+		if (size == 1)
+			return new RouteSolution(0, new int[] { 0 }, true);
+
+		boolean constrained = Long.bitCount(free) < size;
+		int cycleSize = constrained ? size : size + 1;
+		int[][] graph = new int[cycleSize][cycleSize];
+
+		for (int from = 0; from < size; from++)
+			for (int to = 0; to < size; to++)
+				graph[from][to] = predecessors[from] != 0 && predecessors[to] == 0 ? LittlesAlgorithm.INF3
+						: matrix[from][to];
+
+		LittlesAlgorithm engine = engines.get();
+		engine.findHamiltonianCycle(graph, cycleSize, getTour(knownPath, predecessors, size, cycleSize));
+
+		int[] next = new int[cycleSize];
+		int start = constrained ? -1 : size;
+		for (int[] edge : engine.getPathCycle()) {
+			next[edge[0]] = edge[1];
+			if (constrained && graph[edge[0]][edge[1]] == LittlesAlgorithm.INF3)
+				start = edge[0];
+		}
+
+		int[] path = new int[size];
+		int length = 0;
+		for (int i = 0, node = next[start]; i < size; node = next[node], i++) {
+			path[i] = node;
+			length += i == 0 ? 0 : matrix[path[i - 1]][node];
+		}
+
+		return new RouteSolution(length, path, engine.isOptimal());
+	}
+
+	/**
+	 * @return known path as a tour of the cycle graph, or free nodes followed by
+	 *         constrained nodes if there is no known path. Both have the only
+	 *         edge from constrained to free nodes, so even interrupted search
+	 *         returns valid cycle.
+	 */
+	private int[] getTour(int[] knownPath, long[] predecessors, int size, int cycleSize) {
+		int[] tour = new int[cycleSize];
+
+		if (knownPath != null && knownPath.length == size) {
+			System.arraycopy(knownPath, 0, tour, 0, size);
+
+		} else {
+			int index = 0;
+			for (int node = 0; node < size; node++)
+				if (predecessors[node] == 0)
+					tour[index++] = node;
+			for (int node = 0; node < size; node++)
+				if (predecessors[node] != 0)
+					tour[index++] = node;
+		}
+
+		if (cycleSize > size)
+			tour[size] = size;
+
+		return tour;
+	}
+
+}
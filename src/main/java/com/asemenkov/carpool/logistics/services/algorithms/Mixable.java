@@ -1,7 +1,7 @@
 package com.asemenkov.carpool.logistics.services.algorithms;
 
 /**
- * Generic argument for Kernighan-Lin algorithm
+ * Generic argument for Kernighan-Lin and Simulated Annealing algorithms
  * 
  * @author asemenkov
  * @since Feb 14, 2018
@@ -19,9 +19,51 @@ public interface Mixable<T extends Mixable<T>> {
 	 */
 	public void mixTwoItems(T mixable);
 
+	/**
+	 * Moves one item from this Mixable to Mixable arg or vice versa, if it leads
+	 * to better result
+	 */
+	public void relocateOneItem(T mixable);
+
+	/**
+	 * Swaps one item of this Mixable for one item of Mixable arg, if it leads to
+	 * better result
+	 */
+	public void swapOneItem(T mixable);
+
+	/**
+	 * Makes the best move of items between this Mixable and Mixable arg, even if
+	 * it leads to worse result, but by less than tolerance
+	 * 
+	 * @return change of the result of both Mixables, 0 if nothing is moved
+	 */
+	public int moveItems(T mixable, int tolerance);
+
+	/**
+	 * @return immutable snapshot of items and result, which can be restored
+	 *         later
+	 */
+	public Object getSnapshot();
+
+	/**
+	 * Brings back items and result of this Mixable from its snapshot
+	 */
+	public void restoreSnapshot(Object snapshot);
+
+	/**
+	 * @return whether there are no items, so the Mixable may be dropped
+	 */
+	public boolean isEmpty();
+
 	/**
 	 * @return better result which is achieved during mix() operation
 	 */
 	public int getMixResult();
 
+	/**
+	 * @return result with penalty for breaking the constraints, which is the
+	 *         objective of the moves
+	 */
+	public int getMixCost();
+
 }
@@ -0,0 +1,25 @@
+package com.asemenkov.carpool.logistics.services.algorithms;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Algorithm for partition of graph, which mixes items between Mixables
+ * 
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+public interface MixingAlgorithm {
+
+	/**
+	 * @param pool
+	 *            -- pool for parallel mixing of pairs, common pool by default.
+	 *            Parallel streams of Mixables run in the same pool
+	 */
+	public void setPool(ForkJoinPool pool);
+
+	/**
+	 * Mixes items between Mixables, so their total result becomes better
+	 */
+	public void mix();
+
+}
@@ -0,0 +1,165 @@
+package com.asemenkov.carpool.logistics.services.algorithms;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Parallel engine of the Little's algorithm. Each branch built by
+ * {@link #branchOutGraph(int[][], int[][])} is an independent subproblem, so
+ * the branches become {@link RecursiveAction} tasks of ForkJoinPool. The best
+ * path length is shared between the workers through atomic bound, so every
+ * branch is pruned with the best cycle found by any worker.</br>
+ *
+ * Small graphs are explored in the same thread, because forking doesn't pay
+ * off for them. Unless the pool is given, the branches are forked into the
+ * pool of the caller, so the engine invoked by the optimization pool of the
+ * Logistics Process doesn't take more processors than the process may use.
+ *
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+public class ParallelLittlesAlgorithm extends LittlesAlgorithm {
+
+	private static final int FORK_THRESHOLD = 7;
+
+	private final ForkJoinPool pool;
+	private final AtomicInteger bound = new AtomicInteger(INF1);
+	private final LongAdder nodes = new LongAdder();
+	private final ThreadLocal<long[]> workerNodes = ThreadLocal.withInitial(() -> new long[1]);
+
+	public ParallelLittlesAlgorithm() {
+		this(null);
+	}
+
+	/**
+	 * @param pool
+	 *            -- pool of the branches, or null for the pool of the caller
+	 */
+	public ParallelLittlesAlgorithm(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Builds Hamiltonian Cycle for copy of argument matrix in ForkJoinPool and
+	 * waits for all the branches to be explored. Initial matrix is not altered.
+	 *
+	 * @param graph
+	 *            -- square matrix at least 2x2
+	 * @param size
+	 *            -- size of matrix, must be less or equals origin matrix sizes
+	 * @param tour
+	 *            -- known tour as array of nodes in the order of visiting, or null
+	 */
+	@Override
+	public void findHamiltonianCycle(int[][] graph, int size, int[] tour) {
+		startSearch(graph, size, tour);
+		bound.set(bestPath);
+		nodes.reset();
+		invoke(new BranchTask(getIndexedGraph(graph, size), new int[0][2]));
+		exploredNodes = nodes.sum();
+		finishSearch(graph, size);
+	}
+
+	/**
+	 * Runs the root task in the given pool. Otherwise the caller runs it, if it's
+	 * worker of ForkJoinPool, so the branches are forked into its pool. Other
+	 * callers use the common pool.
+	 */
+	private void invoke(BranchTask task) {
+		if (pool != null)
+			pool.invoke(task);
+		else if (ForkJoinTask.inForkJoinPool())
+			task.invoke();
+		else
+			ForkJoinPool.commonPool().invoke(task);
+	}
+
+	/**
+	 * Updates 'bestPath' and 'bestCycle' if and only if the cycle is better than
+	 * the one found by other workers
+	 */
+	private synchronized void saveBestCycle(int[][] cycle, int length) {
+		if (length < bestPath) {
+			bestCycle = cycle;
+			bestPath = length;
+			bound.set(length);
+		}
+	}
+
+	/**
+	 * The clock is checked on every 256th branch of each worker, since branches
+	 * of the shared counter may be skipped by concurrent increments. The shared
+	 * counter is summed only if there is the budget of branches.
+	 */
+	private boolean isBudgetExhausted() {
+		long[] counter = workerNodes.get();
+		return isBudgetExhausted(nodeBudget > 0 ? nodes.sum() : 0, (++counter[0] & 0xFF) == 0);
+	}
+
+	/**
+	 * One step of {@link LittlesAlgorithm}, see its recursive method for details.
+	 * Include-edge and exclude-edge branches are forked as new tasks.
+	 */
+	private class BranchTask extends RecursiveAction {
+
+		private static final long serialVersionUID = -1868305573496158613L;
+
+		private final int[][] graph;
+		private final int[][] cycle;
+
+		private BranchTask(int[][] graph, int[][] cycle) {
+			this.graph = graph;
+			this.cycle = cycle;
+		}
+
+		@Override
+		protected void compute() {
+			int delta;
+			nodes.increment();
+
+			if (isBudgetExhausted())
+				return;
+
+			if ((delta = subtractMinElementInEachRow(graph)) == INF2)
+				return;
+
+			graph[0][0] += delta;
+			if (graph[0][0] >= bound.get())
+				return;
+
+			if ((delta = subtractMinElementInEachCol(graph)) == INF2)
+				return;
+
+			graph[0][0] += delta;
+			if (graph[0][0] >= bound.get())
+				return;
+
+			int[][] zerosCoords = findZerosCoordinates(graph);
+
+			if (graph.length == 3) {
+				saveBestCycle(appendToCycle(graph, cycle, zerosCoords[0], zerosCoords[1]), graph[0][0]);
+				return;
+			}
+
+			int[] littlesSums = findLittlesSums(graph, zerosCoords);
+			int[][] coords = filterCoordsLessThanMaxSum(zerosCoords, littlesSums);
+			int[][][] branchedGraph = branchOutGraph(graph, coords);
+
+			BranchTask[] tasks = new BranchTask[branchedGraph.length];
+			for (int i = 0; i < coords.length; i++)
+				tasks[i] = new BranchTask(branchedGraph[i], appendToCycle(graph, cycle, coords[i]));
+			for (int i = coords.length; i < branchedGraph.length; i++)
+				tasks[i] = new BranchTask(branchedGraph[i], cycle);
+
+			if (graph.length > FORK_THRESHOLD)
+				invokeAll(tasks);
+			else
+				for (BranchTask task : tasks)
+					task.compute();
+		}
+	}
+
+}
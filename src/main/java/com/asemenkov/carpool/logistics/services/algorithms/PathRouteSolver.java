@@ -0,0 +1,28 @@
+package com.asemenkov.carpool.logistics.services.algorithms;
+
+import java.util.function.Supplier;
+
+/**
+ * {@link RouteSolver} backed by {@link PickupDeliverySolver} or its subclass.
+ * Solvers keep their buffers between invocations, so each thread gets its own
+ * solver.
+ * 
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+public class PathRouteSolver implements RouteSolver {
+
+	private final ThreadLocal<PickupDeliverySolver> solvers;
+
+	public PathRouteSolver(Supplier<? extends PickupDeliverySolver> supplier) {
+		this.solvers = ThreadLocal.withInitial(supplier);
+	}
+
+	@Override
+	public RouteSolution solve(int[][] matrix, int size, long[] predecessors, int[] knownPath) {
+		PickupDeliverySolver solver = solvers.get();
+		solver.findHamiltonianPath(matrix, size, predecessors, -1, knownPath);
+		return new RouteSolution(solver.getPathLength(), solver.getPath(), true);
+	}
+
+}
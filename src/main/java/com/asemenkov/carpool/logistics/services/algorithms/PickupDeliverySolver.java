@@ -0,0 +1,258 @@
+package com.asemenkov.carpool.logistics.services.algorithms;
+
+/**
+ * Exact solver for the shortest Hamiltonian Path with precedence constraints,
+ * e.g. each drop off location is visited after its pick up location. Unlike
+ * {@link LittlesAlgorithm} it doesn't need artificial closing edge and never
+ * explores the branches which break the constraints.</br>
+ *
+ * Depth-first branch and bound: the cheapest feasible edges are tried first,
+ * and the branch is cut off if its length plus the cheapest incoming edge of
+ * each unvisited node is not less than the best path.
+ *
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+public class PickupDeliverySolver {
+
+	private static final int MAX_SIZE = 64;
+
+	private int[][] graph;
+	private long[] predecessors;
+	private long allNodes;
+
+	private int[] path = new int[0];
+	private int[][] candidates = new int[0][0];
+
+	protected int size;
+	protected int[] bestPath = new int[0];
+	protected int bestLength;
+	protected long exploredNodes;
+
+	/**
+	 * Builds the shortest Hamiltonian Path which may start at any node without
+	 * predecessors. Initial matrix is not altered.
+	 *
+	 * @param graph
+	 *            -- square matrix at least 1x1
+	 * @param size
+	 *            -- size of matrix, must be less or equals origin matrix sizes
+	 * @param predecessors
+	 *            -- bit mask of nodes, which must be visited before each node
+	 */
+	public void findHamiltonianPath(int[][] graph, int size, long[] predecessors) {
+		findHamiltonianPath(graph, size, predecessors, -1, null);
+	}
+
+	/**
+	 * Builds the shortest Hamiltonian Path. Initial matrix is not altered.
+	 *
+	 * @param graph
+	 *            -- square matrix at least 1x1
+	 * @param size
+	 *            -- size of matrix, must be less or equals origin matrix sizes
+	 * @param predecessors
+	 *            -- bit mask of nodes, which must be visited before each node
+	 * @param start
+	 *            -- the first node of the path, or -1 for any node
+	 * @param knownPath
+	 *            -- known feasible path as initial upper bound, or null
+	 */
+	public void findHamiltonianPath(int[][] graph, int size, long[] predecessors, int start, int[] knownPath) {
+		if (size < 1 || size > MAX_SIZE)
+			throw new IllegalArgumentException("Size of graph must be in range [1, " + MAX_SIZE + "]: " + size);
+		if (start >= size || start >= 0 && predecessors[start] != 0)
+			throw new IllegalArgumentException("Path can't start at node " + start);
+
+		init(graph, size, predecessors);
+
+		for (int node = 0; node < size; node++)
+			if (start < 0 ? predecessors[node] == 0 : node == start)
+				greedyHamiltonianPath(node);
+
+		if (isFeasible(knownPath, start) && getLength(knownPath) < bestLength) {
+			bestLength = getLength(knownPath);
+			System.arraycopy(knownPath, 0, bestPath, 0, size);
+		}
+
+		if (bestLength == Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Precedence constraints can't be satisfied");
+
+		for (int node = 0; node < size; node++)
+			if (start < 0 ? predecessors[node] == 0 : node == start) {
+				path[0] = node;
+				recursiveHamiltonianPath(1L << node, 1, 0);
+			}
+	}
+
+	/**
+	 * @return length of the shortest possible path after invocation of</br>
+	 *         {@link #findHamiltonianPath(int[][], int, long[])}
+	 */
+	public int getPathLength() {
+		return bestLength;
+	}
+
+	/**
+	 * @return the shortest possible path after invocation of</br>
+	 *         {@link #findHamiltonianPath(int[][], int, long[])}</br>
+	 *         in format of nodes in the order of visiting
+	 */
+	public int[] getPath() {
+		int[] toReturn = new int[size];
+		System.arraycopy(bestPath, 0, toReturn, 0, size);
+		return toReturn;
+	}
+
+	/**
+	 * @return number of branches explored during the latest invocation of</br>
+	 *         {@link #findHamiltonianPath(int[][], int, long[])}
+	 */
+	public long getExploredNodes() {
+		return exploredNodes;
+	}
+
+	/**
+	 * Resets the state. Buffers are reused between invocations and grow only if
+	 * bigger graph is passed.
+	 */
+	private void init(int[][] graph, int size, long[] predecessors) {
+		if (path.length < size) {
+			path = new int[size];
+			bestPath = new int[size];
+			candidates = new int[size][size];
+		}
+
+		this.graph = graph;
+		this.size = size;
+		this.predecessors = predecessors;
+		this.allNodes = size == MAX_SIZE ? -1L : (1L << size) - 1;
+		this.bestLength = Integer.MAX_VALUE;
+		this.exploredNodes = 0;
+	}
+
+	/**
+	 * Goes to the nearest feasible node while possible. Updates the best path if
+	 * all the nodes are visited and the path is shorter.
+	 */
+	private void greedyHamiltonianPath(int start) {
+		long visited = 1L << start;
+		int length = 0;
+		path[0] = start;
+
+		for (int depth = 1; depth < size; depth++) {
+			int next = -1;
+			for (int node = 0; node < size; node++)
+				if (isAvailable(node, visited) && (next < 0 || graph[path[depth - 1]][node] < graph[path[depth - 1]][next]))
+					next = node;
+
+			if (next < 0)
+				return;
+
+			length += graph[path[depth - 1]][next];
+			visited |= 1L << (path[depth] = next);
+		}
+
+		if (length < bestLength) {
+			bestLength = length;
+			System.arraycopy(path, 0, bestPath, 0, size);
+		}
+	}
+
+	/**
+	 * @param visited
+	 *            -- bit mask of the nodes of the path
+	 * @param depth
+	 *            -- number of nodes in the path
+	 * @param length
+	 *            -- length of the path
+	 */
+	private void recursiveHamiltonianPath(long visited, int depth, int length) {
+		exploredNodes++;
+		int last = path[depth - 1];
+
+		if (depth == size) {
+			if (length < bestLength) {
+				bestLength = length;
+				System.arraycopy(path, 0, bestPath, 0, size);
+			}
+			return;
+		}
+
+		if (length + getLowerBound(last, visited) >= bestLength)
+			return;
+
+		int[] next = candidates[depth];
+		int count = 0;
+
+		for (int node = 0; node < size; node++)
+			if (isAvailable(node, visited)) {
+				int i = count++;
+				for (; i > 0 && graph[last][next[i - 1]] > graph[last][node]; i--)
+					next[i] = next[i - 1];
+				next[i] = node;
+			}
+
+		for (int i = 0; i < count; i++) {
+			int node = next[i];
+			path[depth] = node;
+			recursiveHamiltonianPath(visited | 1L << node, depth + 1, length + graph[last][node]);
+		}
+	}
+
+	/**
+	 * Each unvisited node will be entered exactly once, either from the last node
+	 * of the path, or from another unvisited node which isn't its successor
+	 *
+	 * @return sum of the cheapest possible incoming edges of unvisited nodes
+	 */
+	private int getLowerBound(int last, long visited) {
+		long unvisited = allNodes & ~visited;
+		int bound = 0;
+
+		for (long to = unvisited; to != 0; to &= to - 1) {
+			int node = Long.numberOfTrailingZeros(to);
+			int min = graph[last][node];
+
+			for (long from = unvisited & ~(1L << node); from != 0; from &= from - 1) {
+				int prev = Long.numberOfTrailingZeros(from);
+				if ((predecessors[prev] >>> node & 1) == 0 && graph[prev][node] < min)
+					min = graph[prev][node];
+			}
+
+			bound += min;
+		}
+
+		return bound;
+	}
+
+	private boolean isAvailable(int node, long visited) {
+		return (visited >>> node & 1) == 0 && (predecessors[node] & ~visited) == 0;
+	}
+
+	/**
+	 * @return whether the path visits all the nodes exactly once, starts at the
+	 *         start node if any, and satisfies precedence constraints
+	 */
+	private boolean isFeasible(int[] knownPath, int start) {
+		if (knownPath == null || knownPath.length != size || start >= 0 && knownPath[0] != start)
+			return false;
+
+		long visited = 0;
+		for (int node : knownPath)
+			if (node < 0 || node >= size || !isAvailable(node, visited))
+				return false;
+			else
+				visited |= 1L << node;
+
+		return true;
+	}
+
+	private int getLength(int[] knownPath) {
+		int length = 0;
+		for (int i = 1; i < size; i++)
+			length += graph[knownPath[i - 1]][knownPath[i]];
+		return length;
+	}
+
+}
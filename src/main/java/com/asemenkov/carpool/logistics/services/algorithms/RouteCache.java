@@ -0,0 +1,163 @@
+package com.asemenkov.carpool.logistics.services.algorithms;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of car routes. The key is the set of passengers, so the
+ * route is found only once for each group of passengers, no matter how many
+ * times they are swapped between cars and in which seats they are.</br>
+ *
+ * Routes depend on Global Matrix, so the cache must not be shared between
+ * Logistics Processes. If several threads ask for the same missing route, it is
+ * found only once, and the rest of threads wait for it.
+ *
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+public class RouteCache {
+
+	private final Map<Key, CompletableFuture<Route>> routes;
+	private long hits;
+	private long misses;
+
+	/**
+	 * @param maximumSize
+	 *            -- maximum number of routes, the least recently used one is
+	 *            evicted
+	 */
+	public RouteCache(int maximumSize) {
+		this.routes = new LinkedHashMap<Key, CompletableFuture<Route>>(16, 0.75f, true) {
+			private static final long serialVersionUID = 4172945309371263538L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, CompletableFuture<Route>> eldest) {
+				return size() > maximumSize;
+			}
+		};
+	}
+
+	/**
+	 * @param picks
+	 *            -- pick up Location indexes (relates to Global Matrix)
+	 * @param drops
+	 *            -- drop off Location indexes (relates to Global Matrix)
+	 * @param seats
+	 *            -- number of passengers
+	 * @return passengers in canonical form: sorted (pick, drop) pairs
+	 */
+	public static long[] getPassengers(int[] picks, int[] drops, int seats) {
+		long[] passengers = new long[seats];
+		for (int i = 0; i < seats; i++)
+			passengers[i] = (long) picks[i] << 32 | drops[i] & 0xFFFFFFFFL;
+		Arrays.sort(passengers);
+		return passengers;
+	}
+
+	/**
+	 * @param passengers
+	 *            -- result of {@link #getPassengers(int[], int[], int)}
+	 * @param solver
+	 *            -- finds the route if it isn't cached, the route must not be
+	 *            altered afterwards
+	 * @return cached or just found route
+	 */
+	public Route get(long[] passengers, Supplier<Route> solver) {
+		Key key = new Key(passengers);
+		CompletableFuture<Route> route, created = null;
+
+		synchronized (this) {
+			route = routes.get(key);
+			if (route == null) {
+				routes.put(key, route = created = new CompletableFuture<>());
+				misses++;
+			} else {
+				hits++;
+			}
+		}
+
+		if (created != null)
+			try {
+				created.complete(solver.get());
+			} catch (RuntimeException e) {
+				synchronized (this) {
+					routes.remove(key, created);
+				}
+				created.completeExceptionally(e);
+				throw e;
+			}
+
+		return route.join();
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	public synchronized int getSize() {
+		return routes.size();
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "RouteCache [size=" + routes.size() + ", hits=" + hits + ", misses=" + misses + "]";
+	}
+
+	/**
+	 * Route length and the route itself
+	 */
+	public static class Route {
+
+		private final int length;
+		private final int[][] route;
+
+		/**
+		 * @param route
+		 *            -- route in format of {@link Car#getSuggestedRoute()}
+		 */
+		Route(int length, int[][] route) {
+			this.length = length;
+			this.route = route;
+		}
+
+		public int getLength() {
+			return length;
+		}
+
+		public int[][] getRoute() {
+			return route;
+		}
+	}
+
+	/**
+	 * Wrapper for array of passengers with content based equals and hashCode
+	 */
+	private static class Key {
+
+		private final long[] passengers;
+		private final int hash;
+
+		private Key(long[] passengers) {
+			this.passengers = passengers;
+			this.hash = Arrays.hashCode(passengers);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Key && Arrays.equals(passengers, ((Key) obj).passengers);
+		}
+	}
+
+}
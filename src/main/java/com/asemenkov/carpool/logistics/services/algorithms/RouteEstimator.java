@@ -0,0 +1,152 @@
+package com.asemenkov.carpool.logistics.services.algorithms;
+
+/**
+ * Fast estimates of car route length, which are used to rank candidate swaps
+ * before the exact route solver confirms them. Estimates keep the shape of car
+ * route: all the pick up locations, then all the drop off locations, so they
+ * are never less than the shortest route.</br>
+ *
+ * Seats are given as picks and drops arrays of Global Matrix indexes, empty
+ * seats are marked with -1 and may be anywhere in the arrays.
+ *
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+public final class RouteEstimator {
+
+	private RouteEstimator() {
+	}
+
+	/**
+	 * Edits the route of the base snapshot instead of building a new one: drop
+	 * off locations of the passengers who leave the car are removed, and so are
+	 * pick up locations which are not needed anymore. Then pick up and drop off
+	 * locations of new passengers are inserted into the cheapest positions of
+	 * the picks and drops parts of the route. Each removal and insertion takes
+	 * O(route length).
+	 *
+	 * @param globalMatrix
+	 *            -- distances or durations between all the locations
+	 * @param base
+	 *            -- evaluated snapshot of the car
+	 * @param picks
+	 *            -- pick up Location indexes of seats after the move
+	 * @param drops
+	 *            -- drop off Location indexes of seats after the move
+	 * @return length of the edited route, which is not less than the shortest
+	 *         route
+	 */
+	public static int getInsertionLength(int[][] globalMatrix, CarState base, int[] picks, int[] drops) {
+		return getInsertionLength(globalMatrix, base, picks, drops, new int[base.getRoute().length + 1 + 2 * picks.length]);
+	}
+
+	/**
+	 * Same as {@link #getInsertionLength(int[][], CarState, int[], int[])}, but
+	 * allocates nothing
+	 *
+	 * @param sequence
+	 *            -- buffer for the edited route, at least route length + 1 + 2 *
+	 *            number of seats
+	 */
+	public static int getInsertionLength(int[][] globalMatrix, CarState base, int[] picks, int[] drops,
+			int[] sequence) {
+		int[] basePicks = base.getPicks();
+		int[] baseDrops = base.getDrops();
+		int[][] route = base.getRoute();
+
+		long matched = 0, removed = 0, added = 0;
+		for (int seat = 0; seat < basePicks.length; seat++) {
+			if (basePicks[seat] < 0)
+				continue;
+
+			int same = -1;
+			for (int other = 0; other < picks.length && same < 0; other++)
+				if ((matched >>> other & 1) == 0 && picks[other] == basePicks[seat] && drops[other] == baseDrops[seat])
+					same = other;
+
+			if (same < 0)
+				removed |= 1L << seat;
+			else
+				matched |= 1L << same;
+		}
+
+		for (int seat = 0; seat < picks.length; seat++)
+			if (picks[seat] >= 0 && (matched >>> seat & 1) == 0)
+				added |= 1L << seat;
+
+		int size = route.length == 0 ? 0 : route.length + 1;
+		for (int i = 0; i < size; i++)
+			sequence[i] = i == 0 ? route[0][0] : route[i - 1][1];
+
+		int pickCount = size - base.getSeats();
+		for (long seats = removed; seats != 0; seats &= seats - 1)
+			size = remove(sequence, size, indexOf(sequence, pickCount, size, baseDrops[Long.numberOfTrailingZeros(seats)]));
+
+		for (int i = pickCount - 1; i >= 0; i--)
+			if (indexOf(picks, 0, picks.length, sequence[i]) < 0) {
+				size = remove(sequence, size, i);
+				pickCount--;
+			}
+
+		for (long seats = added; seats != 0; seats &= seats - 1) {
+			int seat = Long.numberOfTrailingZeros(seats);
+			if (indexOf(sequence, 0, pickCount, picks[seat]) < 0)
+				size = insert(globalMatrix, sequence, size, 0, pickCount++, picks[seat]);
+			size = insert(globalMatrix, sequence, size, pickCount, size, drops[seat]);
+		}
+
+		int length = 0;
+		for (int i = 1; i < size; i++)
+			length += globalMatrix[sequence[i - 1]][sequence[i]];
+		return length;
+	}
+
+	/**
+	 * Inserts location into the cheapest position in range [from, to]
+	 *
+	 * @return new size of the sequence
+	 */
+	private static int insert(int[][] globalMatrix, int[] sequence, int size, int from, int to, int location) {
+		int bestPosition = from;
+		int bestCost = Integer.MAX_VALUE;
+
+		for (int position = from; position <= to; position++) {
+			int cost = 0;
+			if (position > 0)
+				cost += globalMatrix[sequence[position - 1]][location];
+			if (position < size)
+				cost += globalMatrix[location][sequence[position]];
+			if (position > 0 && position < size)
+				cost -= globalMatrix[sequence[position - 1]][sequence[position]];
+
+			if (cost < bestCost) {
+				bestCost = cost;
+				bestPosition = position;
+			}
+		}
+
+		System.arraycopy(sequence, bestPosition, sequence, bestPosition + 1, size - bestPosition);
+		sequence[bestPosition] = location;
+		return size + 1;
+	}
+
+	/**
+	 * @return new size of the sequence
+	 */
+	private static int remove(int[] sequence, int size, int position) {
+		System.arraycopy(sequence, position + 1, sequence, position, size - position - 1);
+		return size - 1;
+	}
+
+	/**
+	 * @return position of the first occurrence of location in range [from, to)
+	 *         or -1
+	 */
+	private static int indexOf(int[] locations, int from, int to, int location) {
+		for (int i = from; i < to; i++)
+			if (locations[i] == location)
+				return i;
+		return -1;
+	}
+
+}
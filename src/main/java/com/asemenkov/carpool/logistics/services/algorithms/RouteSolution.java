@@ -0,0 +1,42 @@
+package com.asemenkov.carpool.logistics.services.algorithms;
+
+/**
+ * Immutable result of {@link RouteSolver}
+ * 
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+public class RouteSolution {
+
+	private final int length;
+	private final int[] path;
+	private final boolean optimal;
+
+	public RouteSolution(int length, int[] path, boolean optimal) {
+		this.length = length;
+		this.path = path;
+		this.optimal = optimal;
+	}
+
+	/**
+	 * @return length of the path
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * @return nodes in the order of visiting, must not be altered
+	 */
+	public int[] getPath() {
+		return path;
+	}
+
+	/**
+	 * @return whether the path is proven to be the shortest one
+	 */
+	public boolean isOptimal() {
+		return optimal;
+	}
+
+}
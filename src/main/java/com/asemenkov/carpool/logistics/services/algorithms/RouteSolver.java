@@ -0,0 +1,38 @@
+package com.asemenkov.carpool.logistics.services.algorithms;
+
+/**
+ * Finds the shortest Hamiltonian Path for a car. Implementations must be
+ * stateless and reentrant, so one solver can be shared by all the cars and
+ * threads.
+ * 
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+public interface RouteSolver {
+
+	/**
+	 * @param matrix
+	 *            -- square matrix at least 1x1, isn't altered
+	 * @param size
+	 *            -- size of matrix, must be less or equals origin matrix sizes
+	 * @param predecessors
+	 *            -- bit mask of nodes, which must be visited before each node
+	 * @param knownPath
+	 *            -- known feasible path which may be used as initial upper
+	 *            bound, or null
+	 * @return the shortest path found
+	 */
+	public RouteSolution solve(int[][] matrix, int size, long[] predecessors, int[] knownPath);
+
+	/**
+	 * @param matrix
+	 *            -- square matrix at least 1x1, isn't altered
+	 * @param size
+	 *            -- size of matrix, must be less or equals origin matrix sizes
+	 * @return the shortest path found without precedence constraints
+	 */
+	public default RouteSolution solve(int[][] matrix, int size) {
+		return solve(matrix, size, new long[size], null);
+	}
+
+}
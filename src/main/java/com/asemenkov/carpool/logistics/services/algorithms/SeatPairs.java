@@ -0,0 +1,62 @@
+package com.asemenkov.carpool.logistics.services.algorithms;
+
+/**
+ * Unordered pairs of distinct seats of a car, which are worth swapping:</br>
+ * - pairs of occupied seats;</br>
+ * - pairs of occupied seat and the first empty seat;</br>
+ * - the pair of the first two empty seats.</br>
+ * 
+ * Empty seats of a car are shifted to the right, so the first empty seats
+ * stand for all of them, and no swap is enumerated twice. The pairs {i, j},
+ * where i < j, are kept in a table ordered by the second seat: {0, 1}, {0, 2},
+ * {1, 2}, {0, 3}... So the pairs of the first seats are always a prefix of the
+ * table.</br>
+ *
+ * The table is built once per car and is never altered, so it is shared by
+ * all the threads without copying.
+ *
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+public final class SeatPairs {
+
+	private final int capacity;
+	private final int[][] pairs;
+
+	public SeatPairs(int capacity) {
+		this.capacity = capacity;
+		this.pairs = new int[getPrefixLength(capacity)][];
+		for (int index = 0, j = 1; j < capacity; j++)
+			for (int i = 0; i < j; i++)
+				pairs[index++] = new int[] { i, j };
+	}
+
+	/**
+	 * @param seats
+	 *            -- number of occupied seats
+	 * @return number of pairs worth swapping
+	 */
+	public int getCount(int seats) {
+		return getPrefixLength(Math.min(seats + 1, capacity)) + (seats + 2 <= capacity ? 1 : 0);
+	}
+
+	/**
+	 * @param seats
+	 *            -- number of occupied seats
+	 * @param index
+	 *            -- index of pair, less than {@link #getCount(int)}
+	 * @return seats of the pair, must not be altered
+	 */
+	public int[] get(int seats, int index) {
+		int prefixLength = getPrefixLength(Math.min(seats + 1, capacity));
+		return index < prefixLength ? pairs[index] : pairs[prefixLength + seats];
+	}
+
+	/**
+	 * @return number of pairs of the first seats
+	 */
+	private static int getPrefixLength(int seats) {
+		return seats * (seats - 1) / 2;
+	}
+
+}
@@ -0,0 +1,147 @@
+package com.asemenkov.carpool.logistics.services.algorithms;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Algorithm for partition of graph, which can leave local optima of
+ * {@link KernighanLinAlgorithm}. Each iteration makes one move for each pair
+ * of Mixables in the same rounds as Kernighan-Lin does, but the move may make
+ * the result worse by less than -T * ln(u), where T is the temperature and u is
+ * uniformly random in (0, 1]. So worsening by delta is accepted with
+ * probability exp(-delta / T).</br>
+ * 
+ * The temperature cools down after each iteration, so the last iterations
+ * accept only improving moves. The best result is restored in the end, it's
+ * compared by {@link Mixable#getMixCost()}, the same objective as the moves
+ * use, so the result which breaks the constraints isn't restored just because
+ * it's shorter.
+ * 
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public class SimulatedAnnealingAlgorithm<T> implements MixingAlgorithm {
+
+	private final Mixable[] mixables;
+	private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+	private double temperature = 60;
+	private double coolingRate = 0.9;
+	private int iterations = 50;
+	private long timeBudget;
+	private long seed = 42;
+
+	public SimulatedAnnealingAlgorithm(Mixable[] mixables) {
+		this.mixables = mixables;
+	}
+
+	@Override
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * @param temperature
+	 *            -- initial temperature in units of result, worsening by this
+	 *            value is accepted with probability 1/e
+	 * @param coolingRate
+	 *            -- temperature multiplier after each iteration, in (0, 1)
+	 */
+	public void setTemperature(double temperature, double coolingRate) {
+		this.temperature = temperature;
+		this.coolingRate = coolingRate;
+	}
+
+	/**
+	 * @param iterations
+	 *            -- maximum number of iterations
+	 * @param timeBudget
+	 *            -- milliseconds after which no more iterations start, 0 for
+	 *            unlimited
+	 */
+	public void setBudget(int iterations, long timeBudget) {
+		this.iterations = iterations;
+		this.timeBudget = timeBudget;
+	}
+
+	/**
+	 * @param seed
+	 *            -- seed of random tolerances, the same seed gives the same
+	 *            result if the budget isn't limited by time
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * If only 1 Mixable provided, finds its Hamiltonian path and returns</br>
+	 * 
+	 * If 2+ Mixables provided:</br>
+	 * 1. Finds Hamiltonian paths of all the Mixables</br>
+	 * 2. For each pair, makes the best move with random tolerance, which
+	 * depends on the current temperature. Pairs of one round are mixed in
+	 * parallel</br>
+	 * 3. Saves snapshots of all the Mixables, if total cost is the best
+	 * one</br>
+	 * 4. Cools down and continues iterations while the budget allows</br>
+	 * 5. Restores the best snapshots
+	 */
+	@Override
+	public void mix() {
+		if (mixables.length == 1) {
+			mixables[0].mixOneItem();
+			return;
+		}
+
+		pool.submit(() -> Arrays.stream(mixables).parallel().forEach(Mixable::mixOneItem)).join();
+
+		Mixable[][][] rounds = KernighanLinAlgorithm.splitIntoRounds(mixables);
+		long deadline = timeBudget > 0 ? System.currentTimeMillis() + timeBudget : Long.MAX_VALUE;
+		Random random = new Random(seed);
+
+		long bestCost = getCost();
+		Object[] bestSnapshots = getSnapshots();
+		double currentTemperature = temperature;
+
+		for (int i = 0; i < iterations && System.currentTimeMillis() < deadline; i++) {
+			for (Mixable[][] round : rounds) {
+				int[] tolerances = getTolerances(random, round.length, currentTemperature);
+				pool.submit(() -> IntStream.range(0, round.length).parallel()
+						.forEach(pair -> round[pair][0].moveItems(round[pair][1], tolerances[pair]))).join();
+			}
+
+			long newCost = getCost();
+			if (newCost < bestCost) {
+				bestCost = newCost;
+				bestSnapshots = getSnapshots();
+			}
+
+			currentTemperature *= coolingRate;
+		}
+
+		for (int i = 0; i < mixables.length; i++)
+			mixables[i].restoreSnapshot(bestSnapshots[i]);
+	}
+
+	/**
+	 * Tolerances are drawn before the round starts, so they don't depend on
+	 * order of parallel mixing
+	 */
+	private int[] getTolerances(Random random, int pairs, double temperature) {
+		int[] tolerances = new int[pairs];
+		for (int i = 0; i < pairs; i++)
+			tolerances[i] = (int) (-temperature * Math.log(1 - random.nextDouble()));
+		return tolerances;
+	}
+
+	private long getCost() {
+		return Arrays.stream(mixables).mapToLong(Mixable::getMixCost).sum();
+	}
+
+	private Object[] getSnapshots() {
+		return Arrays.stream(mixables).map(Mixable::getSnapshot).toArray();
+	}
+}
@@ -0,0 +1,31 @@
+package com.asemenkov.carpool.logistics.services.algorithms;
+
+/**
+ * Delegates small graphs to one solver and big graphs to another, e.g. Held-Karp
+ * for small graphs and branch and bound for the rest
+ * 
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+public class ThresholdRouteSolver implements RouteSolver {
+
+	private final RouteSolver smallGraphSolver;
+	private final RouteSolver bigGraphSolver;
+	private final int threshold;
+
+	/**
+	 * @param threshold
+	 *            -- graphs of less size are passed to small graph solver
+	 */
+	public ThresholdRouteSolver(RouteSolver smallGraphSolver, RouteSolver bigGraphSolver, int threshold) {
+		this.smallGraphSolver = smallGraphSolver;
+		this.bigGraphSolver = bigGraphSolver;
+		this.threshold = threshold;
+	}
+
+	@Override
+	public RouteSolution solve(int[][] matrix, int size, long[] predecessors, int[] knownPath) {
+		return (size < threshold ? smallGraphSolver : bigGraphSolver).solve(matrix, size, predecessors, knownPath);
+	}
+
+}
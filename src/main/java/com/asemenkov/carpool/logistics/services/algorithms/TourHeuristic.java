@@ -0,0 +1,167 @@
+package com.asemenkov.carpool.logistics.services.algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Fast heuristics for the traveling salesman problem. They don't guarantee the
+ * shortest cycle, but give a good upper bound for the Littles algorithm.</br>
+ *
+ * Tour is an array of nodes in the order of visiting, the edge from the last
+ * node to the first one closes the cycle. Graphs are asymmetric, so Or-opt is
+ * used instead of 2-opt: it moves segments without reversing them.
+ *
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+public final class TourHeuristic {
+
+	private static final int MAX_SEGMENT_LENGTH = 3;
+
+	private TourHeuristic() {
+	}
+
+	/**
+	 * Builds nearest neighbour tour from each node and chooses the shortest one
+	 *
+	 * @param graph
+	 *            -- square matrix at least 2x2
+	 * @param size
+	 *            -- size of matrix, must be less or equals origin matrix sizes
+	 * @return the shortest nearest neighbour tour
+	 */
+	public static int[] getNearestNeighbourTour(int[][] graph, int size) {
+		int[] tour = new int[size];
+		int[] bestTour = new int[size];
+		long bestLength = Long.MAX_VALUE;
+		boolean[] visited = new boolean[size];
+
+		for (int start = 0; start < size; start++) {
+			Arrays.fill(visited, false);
+			visited[tour[0] = start] = true;
+
+			for (int i = 1, next; i < size; visited[tour[i++] = next] = true) {
+				next = -1;
+				for (int j = 0; j < size; j++)
+					if (!visited[j] && (next < 0 || graph[tour[i - 1]][j] < graph[tour[i - 1]][next]))
+						next = j;
+			}
+
+			long length = getTourLength(graph, tour);
+			if (length < bestLength) {
+				int[] swap = bestTour;
+				bestTour = tour;
+				tour = swap;
+				bestLength = length;
+			}
+		}
+
+		return bestTour;
+	}
+
+	/**
+	 * Moves segments of 1-3 consecutive nodes to other positions of the tour while
+	 * it makes the tour shorter. The segments are moved in place, so only the copy
+	 * of the tour is allocated
+	 *
+	 * @param graph
+	 *            -- square matrix at least 2x2
+	 * @param tour
+	 *            -- initial tour, isn't altered
+	 * @return improved copy of the tour
+	 */
+	public static int[] improveWithOrOpt(int[][] graph, int[] tour) {
+		int n = tour.length;
+		tour = tour.clone();
+
+		for (boolean improved = n > 3; improved;) {
+			improved = false;
+
+			search: for (int length = 1; length <= MAX_SEGMENT_LENGTH && length < n - 1; length++)
+				for (int i = 0; i < n; i++) {
+					int first = tour[i];
+					int last = tour[(i + length - 1) % n];
+					int prev = tour[(i + n - 1) % n];
+					int next = tour[(i + length) % n];
+					long removalGain = (long) graph[prev][first] + graph[last][next] - graph[prev][next];
+
+					for (int k = 1; k < n - length; k++) {
+						int a = tour[(i + length + k - 1) % n];
+						int b = tour[(i + length + k) % n];
+						if ((long) graph[a][first] + graph[last][b] - graph[a][b] < removalGain) {
+							moveSegment(tour, i, length, k);
+							improved = true;
+							break search;
+						}
+					}
+				}
+		}
+
+		return tour;
+	}
+
+	/**
+	 * @return length of the cycle including the edge from the last node to the
+	 *         first one
+	 */
+	public static long getTourLength(int[][] graph, int[] tour) {
+		long length = graph[tour[tour.length - 1]][tour[0]];
+		for (int i = 1; i < tour.length; i++)
+			length += graph[tour[i - 1]][tour[i]];
+		return length;
+	}
+
+	/**
+	 * @return whether the tour visits each node of the graph exactly once
+	 */
+	public static boolean isTour(int[] tour, int size) {
+		if (tour == null || tour.length != size)
+			return false;
+
+		boolean[] visited = new boolean[size];
+		for (int node : tour)
+			if (node < 0 || node >= size || visited[node])
+				return false;
+			else
+				visited[node] = true;
+
+		return true;
+	}
+
+	/**
+	 * @return cycle in format of {@link LittlesAlgorithm#getPathCycle()}
+	 */
+	public static int[][] toCycle(int[] tour) {
+		int[][] cycle = new int[tour.length][2];
+		for (int i = 0; i < tour.length; i++) {
+			cycle[i][0] = tour[i];
+			cycle[i][1] = tour[(i + 1) % tour.length];
+		}
+		return cycle;
+	}
+
+	/**
+	 * Cuts the segment out of the tour and puts it back after k-th node of the
+	 * rest of the tour. The segment and the k nodes after it are swapped by three
+	 * reversals of the cyclic range
+	 */
+	private static void moveSegment(int[] tour, int start, int length, int k) {
+		reverse(tour, start, length);
+		reverse(tour, start + length, k);
+		reverse(tour, start, length + k);
+	}
+
+	/**
+	 * Reverses the cyclic range of the tour
+	 */
+	private static void reverse(int[] tour, int start, int length) {
+		int n = tour.length;
+		for (int i = start % n, j = (start + length - 1) % n, steps = length / 2; steps > 0; steps--) {
+			int node = tour[i];
+			tour[i] = tour[j];
+			tour[j] = node;
+			i = (i + 1) % n;
+			j = (j + n - 1) % n;
+		}
+	}
+
+}
@@ -0,0 +1,17 @@
+package com.asemenkov.carpool.logistics.services.enums;
+
+/**
+ * Engine which is used by Littles algorithm bean, can be chosen in
+ * aplication.properties
+ * 
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+public enum LittlesMode {
+
+	RECURSIVE, //
+	FLAT, //
+	PARALLEL, //
+	BEST_FIRST
+
+}
@@ -0,0 +1,15 @@
+package com.asemenkov.carpool.logistics.services.enums;
+
+/**
+ * Algorithm which mixes passengers between cars, default one can be chosen in
+ * aplication.properties and overridden per Logistics Process
+ * 
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+public enum MixingMode {
+
+	KERNIGHAN_LIN, //
+	SIMULATED_ANNEALING
+
+}
@@ -0,0 +1,16 @@
+package com.asemenkov.carpool.logistics.services.enums;
+
+/**
+ * Route solver which is used by cars, can be chosen in aplication.properties
+ * 
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+public enum RouteSolverMode {
+
+	LITTLES, //
+	PICKUP_DELIVERY, //
+	HELD_KARP, //
+	AUTO
+
+}
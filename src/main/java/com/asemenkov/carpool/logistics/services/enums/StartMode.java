@@ -0,0 +1,17 @@
+package com.asemenkov.carpool.logistics.services.enums;
+
+/**
+ * Initial assignment of passengers to cars, starts of Logistics Process take
+ * these modes in turn
+ * 
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+public enum StartMode {
+
+	TASK_ORDER, //
+	NEAREST_HUB, //
+	SWEEP, //
+	RANDOM
+
+}
@@ -0,0 +1,168 @@
+package com.asemenkov.carpool.logistics.services.googlemaps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plans requests to Google Maps Distance Matrices API service for the missing
+ * cells of the matrix only. Each request is a block of origins x destinations,
+ * which doesn't exceed the quota of elements and the limit of points per
+ * side.</br>
+ *
+ * 1. Origins with the same missing destinations are grouped, e.g. new points
+ * miss all the destinations, and known points miss only the new ones. The
+ * diagonal is never missing, but it's requested by the origins which miss most
+ * of destinations, so they are not split into groups of one origin</br>
+ * 2. Each group is tiled into rectangular blocks within the limits, e.g. 4x25
+ * and 5x20, so that the number of blocks is least</br>
+ * 3. Small blocks are merged while the merged block is within the limits, the
+ * known cells of the merged block are just requested once again
+ *
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+public class BlockPlanner {
+
+	private final int maxElements;
+	private final int maxPoints;
+
+	/**
+	 * @param maxElements
+	 *            -- maximum origins x destinations of one request
+	 * @param maxPoints
+	 *            -- maximum origins or destinations of one request
+	 */
+	public BlockPlanner(int maxElements, int maxPoints) {
+		this.maxElements = maxElements;
+		this.maxPoints = maxPoints;
+	}
+
+	/**
+	 * @param missing
+	 *            -- square matrix of cells which must be requested
+	 * @return blocks as pairs of sorted matrix indexes: {origins, destinations}
+	 */
+	public List<int[][]> plan(boolean[][] missing) {
+		Map<BitSet, BitSet> groups = new LinkedHashMap<>();
+		for (int row = 0; row < missing.length; row++) {
+			BitSet cols = new BitSet(missing.length);
+			for (int col = 0; col < missing.length; col++)
+				cols.set(col, missing[row][col]);
+			if (!cols.isEmpty() && cols.cardinality() * 2 >= missing.length)
+				cols.set(row);
+			if (!cols.isEmpty())
+				groups.computeIfAbsent(cols, key -> new BitSet(missing.length)).set(row);
+		}
+
+		List<BitSet[]> tiles = new ArrayList<>();
+		groups.forEach((cols, rows) -> tile(rows.stream().toArray(), cols.stream().toArray(), tiles));
+		tiles.sort(Comparator.comparingInt((BitSet[] tile) -> -tile[0].cardinality() * tile[1].cardinality()));
+
+		List<BitSet[]> blocks = new ArrayList<>();
+		for (BitSet[] tile : tiles)
+			if (blocks.stream().noneMatch(block -> merge(block, tile)))
+				blocks.add(tile);
+
+		List<int[][]> toReturn = new ArrayList<>();
+		for (BitSet[] block : blocks)
+			toReturn.add(new int[][] { block[0].stream().toArray(), block[1].stream().toArray() });
+		return toReturn;
+	}
+
+	/**
+	 * Cuts rows x cols into strips of the width which gives the least number of
+	 * tiles, either along the rows or along the cols. Each strip is tiled with
+	 * its own height, so narrow remainder strip is still packed up to the quota
+	 */
+	private void tile(int[] rows, int[] cols, List<BitSet[]> tiles) {
+		int width = getStripWidth(rows.length, cols.length);
+		int height = getStripWidth(cols.length, rows.length);
+
+		if (countTiles(rows.length, cols.length, width) <= countTiles(cols.length, rows.length, height))
+			for (int j = 0; j < cols.length; j += width)
+				tileStrip(rows, Arrays.copyOfRange(cols, j, Math.min(j + width, cols.length)), tiles, false);
+		else
+			for (int i = 0; i < rows.length; i += height)
+				tileStrip(cols, Arrays.copyOfRange(rows, i, Math.min(i + height, rows.length)), tiles, true);
+	}
+
+	/**
+	 * Splits the strip into tiles as long as the limits allow
+	 * 
+	 * @param along
+	 *            -- indexes along the strip
+	 * @param across
+	 *            -- indexes across the strip, all of them are in each tile
+	 * @param transposed
+	 *            -- whether the strip is cut along the rows
+	 */
+	private void tileStrip(int[] along, int[] across, List<BitSet[]> tiles, boolean transposed) {
+		int length = getTileLength(along.length, across.length);
+
+		for (int i = 0; i < along.length; i += length) {
+			BitSet alongTile = new BitSet(), acrossTile = new BitSet();
+			for (int k = i; k < i + length && k < along.length; k++)
+				alongTile.set(along[k]);
+			for (int index : across)
+				acrossTile.set(index);
+			tiles.add(transposed ? new BitSet[] { acrossTile, alongTile } : new BitSet[] { alongTile, acrossTile });
+		}
+	}
+
+	/**
+	 * @return width of strips along the rows which gives the least number of
+	 *         tiles, the widest one of equal options
+	 */
+	private int getStripWidth(int rows, int cols) {
+		int best = 1, bestTiles = countTiles(rows, cols, 1);
+		for (int width = Math.min(cols, Math.min(maxPoints, maxElements)); width > 1; width--) {
+			int tiles = countTiles(rows, cols, width);
+			if (tiles < bestTiles || tiles == bestTiles && width > best) {
+				best = width;
+				bestTiles = tiles;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * @return number of tiles when rows x cols is cut into strips of the width
+	 */
+	private int countTiles(int rows, int cols, int width) {
+		int tiles = cols / width * countStripTiles(rows, width);
+		return cols % width == 0 ? tiles : tiles + countStripTiles(rows, cols % width);
+	}
+
+	private int countStripTiles(int rows, int width) {
+		int length = getTileLength(rows, width);
+		return (rows + length - 1) / length;
+	}
+
+	private int getTileLength(int along, int across) {
+		return Math.min(along, Math.min(maxPoints, maxElements / across));
+	}
+
+	/**
+	 * @return whether the tile is merged into the block
+	 */
+	private boolean merge(BitSet[] block, BitSet[] tile) {
+		BitSet origins = (BitSet) block[0].clone();
+		BitSet destinations = (BitSet) block[1].clone();
+		origins.or(tile[0]);
+		destinations.or(tile[1]);
+
+		if (origins.cardinality() > maxPoints || destinations.cardinality() > maxPoints
+				|| origins.cardinality() * destinations.cardinality() > maxElements)
+			return false;
+
+		block[0] = origins;
+		block[1] = destinations;
+		return true;
+	}
+
+}
@@ -0,0 +1,195 @@
+package com.asemenkov.carpool.logistics.services.googlemaps;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.asemenkov.carpool.logistics.utils.QuerySender;
+import com.asemenkov.carpool.logistics.utils.QuerySender.ResponseReader;
+
+/**
+ * Sends requests to Google Maps Distance Matrices API service for all the
+ * Logistics Processes. The quota of Google Maps is elements per second, so the
+ * requests are throttled by token bucket of elements: the bucket is refilled
+ * continuously and holds at most 1 second of elements.</br>
+ *
+ * Requests are queued per owner, and the owners are served round-robin, so one
+ * Logistics Process with a huge matrix doesn't hold back the others. Several
+ * requests can be in flight at once, each response is read by the reader of
+ * its request while it arrives.
+ *
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+public class DistanceMatrixFetcher {
+
+	private final QuerySender querySender;
+	private final int elementsPerSecond;
+	private final ExecutorService senders;
+	private final Thread dispatcher;
+
+	private final Map<Object, Deque<Fetch<?>>> queues = new LinkedHashMap<>();
+	private double tokens;
+	private long refillTime = System.nanoTime();
+
+	/**
+	 * @param elementsPerSecond
+	 *            -- quota of origins x destinations per second
+	 * @param inFlight
+	 *            -- maximum number of requests waiting for response at once
+	 */
+	public DistanceMatrixFetcher(QuerySender querySender, int elementsPerSecond, int inFlight) {
+		this.querySender = querySender;
+		this.elementsPerSecond = elementsPerSecond;
+		this.tokens = elementsPerSecond;
+		this.senders = Executors.newFixedThreadPool(inFlight, runnable -> {
+			Thread thread = new Thread(runnable, "google-maps-sender");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		this.dispatcher = new Thread(this::dispatch, "google-maps-dispatcher");
+		this.dispatcher.setDaemon(true);
+		this.dispatcher.start();
+	}
+
+	/**
+	 * @param owner
+	 *            -- requests of the same owner are sent in order of fetching
+	 * @param query
+	 *            -- query string of {@link DistanceMatrixRequest}
+	 * @param elements
+	 *            -- origins x destinations of the request
+	 * @param reader
+	 *            -- reads the response in thread of sender
+	 * @return result of the reader, or null if Google Maps doesn't respond. If
+	 *         the future is cancelled before the request is sent, the request is
+	 *         dropped
+	 */
+	public <T> CompletableFuture<T> fetch(Object owner, String query, int elements, ResponseReader<T> reader) {
+		Fetch<T> fetch = new Fetch<>(query, Math.min(elements, elementsPerSecond), reader);
+		synchronized (queues) {
+			queues.computeIfAbsent(owner, key -> new ArrayDeque<>()).add(fetch);
+			queues.notify();
+		}
+		return fetch.response;
+	}
+
+	/**
+	 * Stops the dispatcher, is called by Spring on shutdown
+	 */
+	public void close() {
+		dispatcher.interrupt();
+		senders.shutdownNow();
+	}
+
+	/**
+	 * Waits for the tokens of the first request of the first owner, only then
+	 * takes the request and passes it to senders. So the owners fetching while
+	 * the dispatcher waits for the tokens are served in turn as well. If the
+	 * request is cancelled during the wait, its tokens are given back
+	 */
+	private void dispatch() {
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				acquire(peek().elements);
+				Fetch<?> fetch = poll();
+
+				if (fetch.response.isDone())
+					tokens = Math.min(elementsPerSecond, tokens + fetch.elements);
+				else
+					senders.execute(fetch::send);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Drops the cancelled requests. The first request of the first owner is taken
+	 * by the dispatcher only, so it is the same until {@link #poll()}
+	 *
+	 * @return the first request of the first owner
+	 */
+	private Fetch<?> peek() throws InterruptedException {
+		synchronized (queues) {
+			while (true) {
+				while (queues.isEmpty())
+					queues.wait();
+
+				Fetch<?> fetch = queues.values().iterator().next().peek();
+				if (!fetch.response.isDone())
+					return fetch;
+				poll();
+			}
+		}
+	}
+
+	/**
+	 * @return the first request of the first owner, the owner is moved to the
+	 *         end of the queue
+	 */
+	private Fetch<?> poll() {
+		synchronized (queues) {
+			Object owner = queues.keySet().iterator().next();
+			Deque<Fetch<?>> queue = queues.remove(owner);
+			Fetch<?> fetch = queue.poll();
+
+			if (!queue.isEmpty())
+				queues.put(owner, queue);
+			return fetch;
+		}
+	}
+
+	/**
+	 * Refills the bucket and sleeps until it has enough tokens
+	 */
+	private void acquire(int elements) throws InterruptedException {
+		while (true) {
+			long now = System.nanoTime();
+			tokens = Math.min(elementsPerSecond, tokens + (now - refillTime) * elementsPerSecond / 1e9);
+			refillTime = now;
+
+			if (tokens >= elements) {
+				tokens -= elements;
+				return;
+			}
+
+			TimeUnit.NANOSECONDS.sleep((long) Math.ceil((elements - tokens) * 1e9 / elementsPerSecond));
+		}
+	}
+
+	private class Fetch<T> {
+
+		private final String query;
+		private final int elements;
+		private final ResponseReader<T> reader;
+		private final CompletableFuture<T> response = new CompletableFuture<>();
+
+		private Fetch(String query, int elements, ResponseReader<T> reader) {
+			this.query = query;
+			this.elements = elements;
+			this.reader = reader;
+		}
+
+		/**
+		 * The request is dropped if it's cancelled while waiting for free sender
+		 */
+		private void send() {
+			if (response.isDone())
+				return;
+
+			try {
+				response.complete(querySender.sendQuery(query, reader));
+			} catch (RuntimeException e) {
+				response.completeExceptionally(e);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,151 @@
+package com.asemenkov.carpool.logistics.services.googlemaps;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.asemenkov.carpool.logistics.services.enums.Status;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Streaming parser of Google Maps Distance Matrices API response for one
+ * block. Distance and duration values are written to the matrices at origin
+ * and destination indexes of the block as soon as they are read, neither the
+ * response text nor JSON tree is built.</br>
+ *
+ * Status of response comes after the rows, so the cells of failed response are
+ * written as well, and the caller must not use them.
+ *
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+public class DistanceMatrixParser {
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	private final int[] origins;
+	private final int[] destinations;
+	private final int[][] distanceMatrix;
+	private final int[][] durationMatrix;
+
+	private Status status = Status.RUNNING_REQUESTS_TO_GOOGLE_MAPS;
+	private String message = "OK";
+	private int elements;
+
+	/**
+	 * @param origins
+	 *            -- matrix indexes of the block rows
+	 * @param destinations
+	 *            -- matrix indexes of the block cols
+	 */
+	public DistanceMatrixParser(int[] origins, int[] destinations, int[][] distanceMatrix, int[][] durationMatrix) {
+		this.origins = origins;
+		this.destinations = destinations;
+		this.distanceMatrix = distanceMatrix;
+		this.durationMatrix = durationMatrix;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	/**
+	 * 1. Reads response token by token and writes elements to the matrices</br>
+	 * 2. Verifies response status and status of each element is OK</br>
+	 * 3. Verifies each cell of the block is read
+	 *
+	 * @return {@link Status#RUNNING_REQUESTS_TO_GOOGLE_MAPS} if the block is
+	 *         written, otherwise the error status
+	 */
+	public Status read(InputStream is) throws IOException {
+		try (JsonParser parser = JSON_FACTORY.createParser(is)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT)
+				return fail(Status.ERROR_REQUESTS_TO_GOOGLE_MAPS_ENCOUNTER_PROBLEM, "Response is not JSON object");
+
+			String responseStatus = null;
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.getCurrentName();
+				parser.nextToken();
+
+				if (field.equals("rows"))
+					readRows(parser);
+				else if (field.equals("status"))
+					responseStatus = parser.getText();
+				else
+					parser.skipChildren();
+			}
+
+			if (responseStatus == null)
+				return fail(Status.ERROR_REQUESTS_TO_GOOGLE_MAPS_ENCOUNTER_PROBLEM, "Response has no status");
+			if (!responseStatus.equals("OK"))
+				return fail(Status.ERROR_REQUESTS_TO_GOOGLE_MAPS_ENCOUNTER_PROBLEM, responseStatus);
+			if (status == Status.RUNNING_REQUESTS_TO_GOOGLE_MAPS && elements != origins.length * destinations.length)
+				return fail(Status.ERROR_REQUESTS_TO_GOOGLE_MAPS_ENCOUNTER_PROBLEM, "Response is incomplete");
+			return status;
+		}
+	}
+
+	private void readRows(JsonParser parser) throws IOException {
+		for (int i = 0; parser.nextToken() == JsonToken.START_OBJECT; i++)
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.getCurrentName();
+				parser.nextToken();
+
+				if (field.equals("elements") && i < origins.length)
+					for (int j = 0; parser.nextToken() == JsonToken.START_OBJECT; j++)
+						if (j < destinations.length)
+							readElement(parser, origins[i], destinations[j]);
+						else
+							parser.skipChildren();
+				else
+					parser.skipChildren();
+			}
+	}
+
+	private void readElement(JsonParser parser, int row, int col) throws IOException {
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			parser.nextToken();
+
+			if (field.equals("distance"))
+				distanceMatrix[row][col] = readValue(parser);
+			else if (field.equals("duration"))
+				durationMatrix[row][col] = readValue(parser);
+			else if (field.equals("status") && !parser.getText().equals("OK"))
+				fail(Status.ERROR_REQUESTS_TO_GOOGLE_MAPS_FAIL_TO_BUILD_ROUTE, parser.getText());
+			else
+				parser.skipChildren();
+		}
+		elements++;
+	}
+
+	/**
+	 * @return value field of distance or duration object
+	 */
+	private int readValue(JsonParser parser) throws IOException {
+		int value = 0;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			parser.nextToken();
+
+			if (field.equals("value"))
+				value = parser.getIntValue();
+			else
+				parser.skipChildren();
+		}
+		return value;
+	}
+
+	/**
+	 * Keeps the first failure only
+	 */
+	private Status fail(Status status, String message) {
+		if (this.status == Status.RUNNING_REQUESTS_TO_GOOGLE_MAPS) {
+			this.status = status;
+			this.message = message;
+		}
+		return this.status;
+	}
+
+}
@@ -0,0 +1,295 @@
+package com.asemenkov.carpool.logistics.services.googlemaps;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Persistent store of distances and durations between pairs of points, which
+ * is shared by all the Logistics Processes. Points are keyed by latitude and
+ * longitude rounded to the given number of decimal places, so the same address
+ * is found regardless of geocoding noise.</br>
+ *
+ * Entries are kept in memory-mapped file as open-addressing hash table with
+ * linear probing, so the index lives off-heap and survives restarts. Each entry
+ * expires after TTL. Expired entries are skipped by lookups, overwritten by
+ * puts and dropped when the table grows.</br>
+ *
+ * File layout: header of {@link #HEADER_SIZE} bytes (magic, precision,
+ * capacity, size), then slots of {@link #SLOT_SIZE} bytes (from, to, distance,
+ * duration, expiration time). Slot with expiration time 0 is empty. The file
+ * is locked exclusively while the store is open, and the grown table is built
+ * in temporary file, which replaces the old one by atomic rename, so the file
+ * is never left half-written.
+ *
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+public class DistanceStore {
+
+	private static final int MAGIC = 0x43504c44;
+	private static final int HEADER_SIZE = 32;
+	private static final int SLOT_SIZE = 32;
+	private static final int MIN_CAPACITY = 1024;
+
+	private final Path path;
+	private final int precision;
+	private final double scale;
+	private final long ttl;
+
+	private RandomAccessFile file;
+	private MappedByteBuffer buffer;
+	private int capacity;
+	private int size;
+
+	/**
+	 * @param path
+	 *            -- file of the store, it's created if it doesn't exist or has
+	 *            another format
+	 * @param precision
+	 *            -- number of decimal places of rounded latitude and longitude
+	 * @param capacity
+	 *            -- initial number of slots, rounded up to power of 2. The store
+	 *            grows twice when it's 3/4 full
+	 * @param ttl
+	 *            -- milliseconds after which entry expires
+	 */
+	public DistanceStore(String path, int precision, int capacity, long ttl) throws IOException {
+		this.path = Paths.get(path).toAbsolutePath();
+		this.precision = precision;
+		this.scale = Math.pow(10, precision);
+		this.ttl = ttl;
+
+		open(this.path);
+		if (file.length() >= HEADER_SIZE && isCompatible()) {
+			map(file.length());
+			this.capacity = buffer.getInt(8);
+			this.size = buffer.getInt(12);
+		} else {
+			file.setLength(0);
+			init(Integer.highestOneBit(Math.max(MIN_CAPACITY, capacity) - 1) << 1);
+		}
+	}
+
+	/**
+	 * @return {distance, duration} between the points, or null if the pair isn't
+	 *         stored or is expired
+	 */
+	public synchronized int[] get(GoogleMapsPoint from, GoogleMapsPoint to) {
+		long fromKey = getKey(from), toKey = getKey(to);
+		long now = System.currentTimeMillis();
+
+		for (int slot = getSlot(fromKey, toKey);; slot = (slot + 1) & (capacity - 1)) {
+			int offset = HEADER_SIZE + slot * SLOT_SIZE;
+			long expiration = buffer.getLong(offset + 24);
+
+			if (expiration == 0)
+				return null;
+			if (buffer.getLong(offset) == fromKey && buffer.getLong(offset + 8) == toKey)
+				return expiration > now ? new int[] { buffer.getInt(offset + 16), buffer.getInt(offset + 20) } : null;
+		}
+	}
+
+	/**
+	 * Stores the pair or renews its entry
+	 */
+	public synchronized void put(GoogleMapsPoint from, GoogleMapsPoint to, int distance, int duration) {
+		if (size + 1 > capacity / 4 * 3)
+			grow();
+		put(getKey(from), getKey(to), distance, duration, System.currentTimeMillis() + ttl);
+	}
+
+	/**
+	 * Writes the changes to the file
+	 */
+	public synchronized void flush() {
+		buffer.force();
+	}
+
+	/**
+	 * Writes the changes to the file and closes it, is called by Spring on
+	 * shutdown
+	 */
+	public synchronized void close() throws IOException {
+		buffer.force();
+		file.close();
+	}
+
+	public synchronized int getSize() {
+		return size;
+	}
+
+	public synchronized int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return rounded latitude and longitude packed into one long
+	 */
+	private long getKey(GoogleMapsPoint point) {
+		return Math.round(point.getLatitude() * scale) << 32 | Math.round(point.getLongtitude() * scale) & 0xFFFFFFFFL;
+	}
+
+	private int getSlot(long fromKey, long toKey) {
+		long hash = fromKey * 0x9E3779B97F4A7C15L ^ toKey;
+		hash = (hash ^ hash >>> 32) * 0x9E3779B97F4A7C15L;
+		return (int) (hash >>> 32) & (capacity - 1);
+	}
+
+	/**
+	 * The first expired slot of the probe sequence is reused, unless the pair is
+	 * found further in the sequence
+	 */
+	private void put(long fromKey, long toKey, int distance, int duration, long expiration) {
+		long now = System.currentTimeMillis();
+		int target = -1;
+
+		for (int slot = getSlot(fromKey, toKey);; slot = (slot + 1) & (capacity - 1)) {
+			int offset = HEADER_SIZE + slot * SLOT_SIZE;
+			long slotExpiration = buffer.getLong(offset + 24);
+
+			if (slotExpiration == 0) {
+				if (target < 0) {
+					target = offset;
+					buffer.putInt(12, ++size);
+				}
+				break;
+			}
+
+			if (buffer.getLong(offset) == fromKey && buffer.getLong(offset + 8) == toKey) {
+				target = offset;
+				break;
+			}
+
+			if (target < 0 && slotExpiration <= now)
+				target = offset;
+		}
+
+		buffer.putLong(target, fromKey);
+		buffer.putLong(target + 8, toKey);
+		buffer.putInt(target + 16, distance);
+		buffer.putInt(target + 20, duration);
+		buffer.putLong(target + 24, expiration);
+	}
+
+	/**
+	 * Doubles the table and keeps only the entries which are not expired. The
+	 * old table is kept if the new one can't be written
+	 */
+	private void grow() {
+		long now = System.currentTimeMillis();
+		long[] entries = new long[size * 4];
+		int count = 0;
+
+		for (int slot = 0; slot < capacity; slot++) {
+			int offset = HEADER_SIZE + slot * SLOT_SIZE;
+			if (buffer.getLong(offset + 24) > now) {
+				entries[count++] = buffer.getLong(offset);
+				entries[count++] = buffer.getLong(offset + 8);
+				entries[count++] = (long) buffer.getInt(offset + 16) << 32 | buffer.getInt(offset + 20) & 0xFFFFFFFFL;
+				entries[count++] = buffer.getLong(offset + 24);
+			}
+		}
+
+		RandomAccessFile oldFile = file;
+		MappedByteBuffer oldBuffer = buffer;
+		int oldCapacity = capacity, oldSize = size;
+		Path temp = null;
+
+		try {
+			temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+			open(temp);
+			init(count / 4 + 1 > capacity / 4 ? capacity * 2 : capacity);
+			for (int i = 0; i < count; i += 4)
+				put(entries[i], entries[i + 1], (int) (entries[i + 2] >> 32), (int) entries[i + 2], entries[i + 3]);
+
+			buffer.force();
+			Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			oldFile.close();
+		} catch (IOException e) {
+			rollback(oldFile, temp, e);
+			file = oldFile;
+			buffer = oldBuffer;
+			capacity = oldCapacity;
+			size = oldSize;
+			throw new IllegalStateException("Distance store can't be grown", e);
+		}
+	}
+
+	/**
+	 * Closes and deletes the temporary file of the grown table, failures are
+	 * added to the cause
+	 */
+	private void rollback(RandomAccessFile oldFile, Path temp, IOException cause) {
+		try {
+			if (file != oldFile)
+				file.close();
+			if (temp != null)
+				Files.deleteIfExists(temp);
+		} catch (IOException e) {
+			cause.addSuppressed(e);
+		}
+	}
+
+	/**
+	 * Opens the file and locks it exclusively, the lock is released when the file
+	 * is closed. Doesn't wait for the lock, so the second application using the
+	 * same file fails on start instead of hanging
+	 */
+	private void open(Path path) throws IOException {
+		file = new RandomAccessFile(path.toFile(), "rw");
+		FileLock lock;
+
+		try {
+			lock = file.getChannel().tryLock();
+		} catch (OverlappingFileLockException e) {
+			lock = null;
+		} catch (IOException | RuntimeException e) {
+			file.close();
+			throw e;
+		}
+
+		if (lock == null) {
+			file.close();
+			throw new IOException("Distance store " + path + " is locked by another application, set another googlemaps.store.path");
+		}
+	}
+
+	/**
+	 * Maps empty table of the given capacity to the empty file
+	 */
+	private void init(int capacity) throws IOException {
+		map(HEADER_SIZE + (long) capacity * SLOT_SIZE);
+
+		this.capacity = capacity;
+		this.size = 0;
+		buffer.putInt(0, MAGIC);
+		buffer.putInt(4, precision);
+		buffer.putInt(8, capacity);
+		buffer.putInt(12, 0);
+	}
+
+	private void map(long length) throws IOException {
+		buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, length);
+	}
+
+	/**
+	 * @return whether the file is created by the store of the same precision
+	 */
+	private boolean isCompatible() throws IOException {
+		file.seek(0);
+		if (file.readInt() != MAGIC || file.readInt() != precision)
+			return false;
+
+		int capacity = file.readInt();
+		return Integer.bitCount(capacity) == 1 && file.length() == HEADER_SIZE + (long) capacity * SLOT_SIZE;
+	}
+
+}
@@ -1,19 +1,17 @@
 package com.asemenkov.carpool.logistics.services.googlemaps;
 
-import java.util.function.Predicate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 
 import com.asemenkov.carpool.logistics.services.enums.Status;
-import com.asemenkov.carpool.logistics.utils.QuerySender;
-import com.asemenkov.carpool.logistics.utils.WaitUtil;
 
 /**
- * Composes distance and duration matrices via requests to Google Maps Distance
- * Matrices API service
+ * Composes distance and duration matrices from {@link DistanceStore} and
+ * requests to Google Maps Distance Matrices API service for the missing cells
  * 
  * @author asemenkov
  * @since Feb 5, 2018
@@ -26,18 +24,13 @@ public class PointsNeighbourship {
 	private final int[][] durationMatrix;
 	private final int matrixSize;
 
-	private static long latestRequestTime = 1500000000000L;
-
 	private Status status = Status.RUNNING_REQUESTS_TO_GOOGLE_MAPS;
 	private String message = "OK";
 
-	private @Value("${googlemaps.limit}") int limit;
-	private @Value("${googlemaps.interval}") int interval;
-
+	private @Autowired DistanceStore distanceStore;
+	private @Autowired BlockPlanner blockPlanner;
 	private @Autowired DistanceMatrixRequest distanceMatrixRequest;
-	private @Autowired QuerySender googleMapsQuerySender;
-
-	private Predicate<Long> waitLimit = (rqtime) -> System.currentTimeMillis() - rqtime > interval + 50;
+	private @Autowired DistanceMatrixFetcher distanceMatrixFetcher;
 
 	public PointsNeighbourship(GoogleMapsPoint[] picks, GoogleMapsPoint[] drops) {
 		this.drops = drops;
@@ -65,92 +58,97 @@ public class PointsNeighbourship {
 	}
 
 	/**
-	 * Updates static field with request time</br>
-	 * Each instance must check this field before request to Google Maps and update
-	 * it after request
+	 * Takes all the stored cells from Distance Store, the diagonal is zero and is
+	 * never requested. The missing cells are planned by {@link BlockPlanner} into
+	 * blocks of origins x destinations within Google Maps limitations: 100
+	 * elements per request and 25 points per side.</br>
+	 * 1. Passes all the blocks to {@link DistanceMatrixFetcher} at once, each
+	 * response is streamed into matrices by {@link DistanceMatrixParser}</br>
+	 * 2. Checks results in order of blocks (if status != OK, the rest of requests
+	 * are cancelled and the process is stopped)</br>
+	 * 3. Writes the blocks into Distance Store
 	 */
-	public static void updateLastRequestTime() {
-		latestRequestTime = System.currentTimeMillis();
+	public void requestGoogleMapsForDistanceMatrices() {
+		List<int[][]> blocks = blockPlanner.plan(readDistanceStore());
+		List<DistanceMatrixParser> parsers = new ArrayList<>(blocks.size());
+		List<CompletableFuture<Status>> responses = new ArrayList<>(blocks.size());
+
+		for (int[][] block : blocks) {
+			for (int i = 0; i < block[0].length; i++)
+				distanceMatrixRequest.addOriginPoint(getPoint(block[0][i]), i);
+			for (int j = 0; j < block[1].length; j++)
+				distanceMatrixRequest.addDestinationsPoint(getPoint(block[1][j]), j);
+
+			DistanceMatrixParser parser = new DistanceMatrixParser(block[0], block[1], distanceMatrix, durationMatrix);
+			String query = distanceMatrixRequest.toQueryString();
+			parsers.add(parser);
+			responses.add(distanceMatrixFetcher.fetch(this, query, block[0].length * block[1].length, parser::read));
+			distanceMatrixRequest.freeAllArrays();
+		}
+
+		for (int i = 0; i < blocks.size(); i++) {
+			if ((status = getResponse(responses.get(i))) != Status.RUNNING_REQUESTS_TO_GOOGLE_MAPS) {
+				message = parsers.get(i).getMessage();
+				responses.forEach(response -> response.cancel(false));
+				return;
+			}
+
+			writeDistanceStore(blocks.get(i)[0], blocks.get(i)[1]);
+		}
+
+		distanceStore.flush();
 	}
 
 	/**
-	 * If sum of pick up and drop off Locations is greater than 10, matrices cannot
-	 * be built with one request. The reason is Google Map limitation: 100 elements
-	 * per second. In this case all Locations are grouped into clusters 10x10. For
-	 * each cluster:</br>
-	 * 1. Sends request to Google Maps</br>
-	 * 2. Parses response (if status != OK, the process is stopped)</br>
-	 * 3. Writes data into corresponding part of matrix</br>
-	 * 4. Waits for 1 second
+	 * Fills matrices with the cells found in Distance Store
+	 * 
+	 * @return matrix of cells which are not found
 	 */
-	public void requestGoogleMapsForDistanceMatrices() {
+	private boolean[][] readDistanceStore() {
+		boolean[][] missing = new boolean[matrixSize][matrixSize];
+
+		for (int row = 0; row < matrixSize; row++)
+			for (int col = 0; col < matrixSize; col++) {
+				int[] cell = row == col ? new int[2] : distanceStore.get(getPoint(row), getPoint(col));
+				if (missing[row][col] = cell == null)
+					continue;
 
-		for (int i = 0; i < matrixSize; i += limit)
-			for (int j = 0; j < matrixSize; j += limit, distanceMatrixRequest.freeAllArrays()) {
-				for (int row = i; row < i + limit && row < matrixSize; row++)
-					for (int col = j; col < j + limit && col < matrixSize; col++) {
-						distanceMatrixRequest.addOriginPoint(row < drops.length ? //
-								drops[row] : picks[row - drops.length], row % limit);
-						distanceMatrixRequest.addDestinationsPoint(col < drops.length ? //
-								drops[col] : picks[col - drops.length], col % limit);
-					}
-
-				parseGoogleMapsResponse(sendRequest(distanceMatrixRequest), i, j);
-				if (status != Status.RUNNING_REQUESTS_TO_GOOGLE_MAPS)
-					return;
+				distanceMatrix[row][col] = cell[0];
+				durationMatrix[row][col] = cell[1];
 			}
+
+		return missing;
 	}
 
 	/**
-	 * Waits for 1 second since the previous request and sends the new one
+	 * Puts the block of matrices into Distance Store
 	 */
-	private JSONObject sendRequest(DistanceMatrixRequest request) {
-		WaitUtil.waitUntilAny(waitLimit, 2000, 20, latestRequestTime);
-		JSONObject response = googleMapsQuerySender.sendQuery(request.toQueryString());
-		return response;
+	private void writeDistanceStore(int[] origins, int[] destinations) {
+		for (int row : origins)
+			for (int col : destinations)
+				distanceStore.put(getPoint(row), getPoint(col), distanceMatrix[row][col], durationMatrix[row][col]);
 	}
 
 	/**
-	 * 1. Verifies response status and status of each element is OK</br>
-	 * 2. Reads JSON data and builds pieces of distance / duration matrices</br>
-	 * 3. Calculates corresponding position of these pieces</br>
-	 * 4. Writes distance / duration pieces to Global Matrices
+	 * @return drop off Location for indexes below number of drops, otherwise pick
+	 *         up Location
 	 */
-	private void parseGoogleMapsResponse(JSONObject response, int startFromRow, int startFromCol) {
-
-		if (response == null) {
-			status = Status.ERROR_REQUESTS_TO_GOOGLE_MAPS_NO_RESPONSE;
-			return;
-		}
+	private GoogleMapsPoint getPoint(int index) {
+		return index < drops.length ? drops[index] : picks[index - drops.length];
+	}
 
-		if (!(message = (String) response.get("status")).equals("OK")) {
-			status = Status.ERROR_REQUESTS_TO_GOOGLE_MAPS_ENCOUNTER_PROBLEM;
-			return;
+	/**
+	 * @return status of parsed response, or error status if Google Maps doesn't
+	 *         respond
+	 */
+	private Status getResponse(CompletableFuture<Status> response) {
+		try {
+			Status status = response.join();
+			return status == null ? Status.ERROR_REQUESTS_TO_GOOGLE_MAPS_NO_RESPONSE : status;
+		} catch (CompletionException e) {
+			e.printStackTrace();
+			return Status.ERROR_REQUESTS_TO_GOOGLE_MAPS_NO_RESPONSE;
 		}
-
-		JSONArray rows = response.getJSONArray("rows");
-		JSONArray elements = rows.getJSONObject(0).getJSONArray("elements");
-		JSONObject element = elements.getJSONObject(0);
-
-		rows: for (int i = 0; i < limit; //
-				elements = rows.getJSONObject(i).getJSONArray("elements"), //
-				element = elements.getJSONObject(0))
-
-			for (int j = 0; j < limit; element = elements.getJSONObject(j)) {
-				if (!(message = (String) element.get("status")).equals("OK")) {
-					status = Status.ERROR_REQUESTS_TO_GOOGLE_MAPS_FAIL_TO_BUILD_ROUTE;
-					return;
-				}
-
-				distanceMatrix[startFromRow + i][startFromCol + j] = element.getJSONObject("distance").getInt("value");
-				durationMatrix[startFromRow + i][startFromCol + j] = element.getJSONObject("duration").getInt("value");
-
-				if (++j == matrixSize - startFromCol || j == limit)
-					if (++i == matrixSize - startFromRow || i == limit)
-						break rows;
-					else
-						continue rows;
-			}
 	}
 
 	/**
@@ -1,10 +1,17 @@
 package com.asemenkov.carpool.logistics.services.logistics;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -22,10 +29,16 @@ import com.asemenkov.carpool.logistics.models.dto.UserLocationDto;
 import com.asemenkov.carpool.logistics.repositories.TaskRepository;
 import com.asemenkov.carpool.logistics.services.algorithms.Car;
 import com.asemenkov.carpool.logistics.services.algorithms.KernighanLinAlgorithm;
+import com.asemenkov.carpool.logistics.services.algorithms.MixingAlgorithm;
+import com.asemenkov.carpool.logistics.services.algorithms.RouteCache;
+import com.asemenkov.carpool.logistics.services.algorithms.SimulatedAnnealingAlgorithm;
+import com.asemenkov.carpool.logistics.services.enums.MixingMode;
+import com.asemenkov.carpool.logistics.services.enums.StartMode;
 import com.asemenkov.carpool.logistics.services.enums.State;
 import com.asemenkov.carpool.logistics.services.enums.Status;
 import com.asemenkov.carpool.logistics.services.googlemaps.GoogleMapsPoint;
 import com.asemenkov.carpool.logistics.services.googlemaps.PointsNeighbourship;
+import com.asemenkov.carpool.logistics.utils.CustomLogger;
 import com.asemenkov.carpool.logistics.utils.Factories.DuoFactory;
 import com.asemenkov.carpool.logistics.utils.Factories.MonoFactory;
 import com.asemenkov.carpool.logistics.utils.Factories.TriFactory;
@@ -38,8 +51,14 @@ import com.asemenkov.carpool.logistics.utils.WaitUtil;
 public class LogisticsProcess {
 
 	private static final int CAPACITY = 4;
+	private static final Comparator<Car[]> CMP_BY_CARS_AND_LENGTH = Comparator.comparingInt((Car[] cars) -> cars.length)
+			.thenComparingInt(cars -> Arrays.stream(cars).mapToInt(Car::getMixResult).sum());
+
 	private final String id;
+	private final MixingMode mixingMode;
 	private int maxLength;
+	private int starts = 1;
+	private long seed;
 	private int[][] globalMatrix;
 	private long[] ids;
 
@@ -54,16 +73,34 @@ public class LogisticsProcess {
 	private @Autowired LogisticsDto logisticsDto;
 	private @Autowired DuoFactory<GoogleMapsPoint[], GoogleMapsPoint[], PointsNeighbourship> pointsNeighbourshipFactory;
 	private @Autowired MonoFactory<Car[], KernighanLinAlgorithm<Car>> kernighanLinForCarsFactory;
+	private @Autowired MonoFactory<Car[], SimulatedAnnealingAlgorithm<Car>> simulatedAnnealingForCarsFactory;
 	private @Autowired DuoFactory<Integer, int[][], Car> carFactory;
 	private @Autowired DuoFactory<Task, GoogleMapsPoint, HubLocationDto> hubLocationDtoFactory;
 	private @Autowired DuoFactory<Task, GoogleMapsPoint, UserLocationDto> userLocationDtoFactory;
 	private @Autowired TriFactory<Car, List<HubLocationDto>, List<UserLocationDto>, RouteDto> routeDtoFactory;
 	private @Autowired TaskRepository taskRepository;
+	private @Autowired RouteCache routeCache;
+	private @Autowired ForkJoinPool optimizationPool;
 
-	public LogisticsProcess(String id, int maxLength, long... ids) {
+	public LogisticsProcess(String id, int maxLength, MixingMode mixingMode, long... ids) {
 		this.id = id;
 		this.ids = ids;
 		this.maxLength = maxLength;
+		this.mixingMode = mixingMode;
+	}
+
+	/**
+	 * @param starts
+	 *            -- number of independent optimizations from different initial
+	 *            assignments, which take {@link StartMode} values in turn, at
+	 *            least 1
+	 * @param seed
+	 *            -- seed of random initial assignments, the same seed gives the
+	 *            same assignments
+	 */
+	public void setStarts(int starts, long seed) {
+		this.starts = Math.max(1, starts);
+		this.seed = seed;
 	}
 
 	/**
@@ -110,6 +147,15 @@ public class LogisticsProcess {
 			return;
 		}
 
+		indexLocations();
+		sendRequestsToGoogleMaps();
+	}
+
+	/**
+	 * Creates distinct drop off and then pick up Location Points of the tasks
+	 * and sets their Global Matrix indexes in this order
+	 */
+	private void indexLocations() {
 		drops = tasks.stream().map(Task::getDropoffLocation).map(GoogleMapsPoint::new).distinct()
 				.toArray(GoogleMapsPoint[]::new);
 		picks = tasks.stream().map(Task::getPickupLocation).map(GoogleMapsPoint::new).distinct()
@@ -118,8 +164,25 @@ public class LogisticsProcess {
 		AtomicInteger index = new AtomicInteger(0);
 		IntStream.range(0, drops.length).forEach(i -> drops[i].setIndex(index.getAndIncrement()));
 		IntStream.range(0, picks.length).forEach(i -> picks[i].setIndex(index.getAndIncrement()));
+	}
 
-		sendRequestsToGoogleMaps();
+	/**
+	 * Executes the third stage for the tasks and Global Matrix which are already
+	 * known, without database and Google Maps
+	 * 
+	 * @param globalMatrix
+	 *            -- durations between distinct drop off and then pick up
+	 *            locations in order of the tasks
+	 * @return cars of the best start
+	 * @throws IllegalStateException
+	 *             if no start succeeds
+	 */
+	public Car[] optimizeTasks(List<Task> tasks, int[][] globalMatrix) {
+		this.tasks = tasks;
+		this.globalMatrix = globalMatrix;
+		indexLocations();
+		fillCars();
+		return optimizeStarts();
 	}
 
 	/**
@@ -156,9 +219,10 @@ public class LogisticsProcess {
 	/**
 	 * The third stage of Logistics Process:</br>
 	 * 1. Checks whether any passenger lives too far from his hub</br>
-	 * 2. Executes Kernighan-Lin algorithm</br>
-	 * 3. If it's not possible to allocate passengers in this amount of cars not
-	 * braking condition [each car rides <= 60 min], adds one more empty car.
+	 * 2. Executes Kernighan-Lin or Simulated Annealing algorithm for each start
+	 * in parallel</br>
+	 * 3. Takes the cars of the start with the least number of cars and the
+	 * shortest total length
 	 */
 	private void executeKernighanLinAlgorithm() {
 		logisticsDto.setStatus(Status.RUNNING_KERNIGHAN_LIN_ALGORITHM);
@@ -169,13 +233,7 @@ public class LogisticsProcess {
 		}
 
 		try {
-			boolean isRouteTooLong = true;
-			while (isRouteTooLong) {
-				kernighanLinForCarsFactory.get(cars).mix();
-				if (isRouteTooLong = Arrays.stream(cars).anyMatch(car -> car.getMixResult() > maxLength))
-					cars = Stream.concat(Stream.of(cars), Stream.of(carFactory.get(CAPACITY, globalMatrix)))
-							.toArray(Car[]::new);
-			}
+			cars = optimizeStarts();
 
 		} catch (IllegalStateException e) {
 			fillErrorLogisticsDto(Status.ERROR_KERNIGHAN_LIN_ALGORITHM_BECOMING_BIGGER, e.getMessage());
@@ -184,11 +242,154 @@ public class LogisticsProcess {
 		} catch (Exception e) {
 			fillErrorLogisticsDto(Status.ERROR_KERNIGHAN_LIN_ALGORITHM_EXCEPTION, e.getClass().toString());
 			return;
+
+		} finally {
+			CustomLogger.log("Logistics Process " + id + ": " + routeCache);
 		}
 
 		fillSuccessLogisticsDto();
 	}
 
+	/**
+	 * @return cars of the start with the least number of cars and the shortest
+	 *         total length
+	 * @throws IllegalStateException
+	 *             if no start succeeds
+	 */
+	private Car[] optimizeStarts() {
+		AtomicReference<IllegalStateException> failure = new AtomicReference<>();
+		return optimizationPool.submit(() -> IntStream.range(0, starts).parallel() //
+				.mapToObj(start -> optimizeStart(start, failure)).filter(Objects::nonNull) //
+				.min(CMP_BY_CARS_AND_LENGTH)).join() //
+				.orElseThrow(failure::get);
+	}
+
+	/**
+	 * 1. Assigns passengers to cars according to start mode, the first start
+	 * keeps the cars filled in task order</br>
+	 * 2. Executes mixing algorithm</br>
+	 * 3. If it's not possible to allocate passengers in this amount of cars not
+	 * braking condition [each car rides <= 60 min], adds one more empty car.</br>
+	 * 4. Drops the cars which are emptied by the algorithm
+	 * 
+	 * @param failure
+	 *            -- keeps exception of the start, which is thrown if no start
+	 *            succeeds
+	 * @return non-empty cars, or null if the result was becoming bigger
+	 */
+	private Car[] optimizeStart(int start, AtomicReference<IllegalStateException> failure) {
+		Car[] cars = start == 0 ? this.cars : getCars(getOrderedTasks(start));
+
+		try {
+			boolean isRouteTooLong = true;
+			while (isRouteTooLong) {
+				MixingAlgorithm mixingAlgorithm = getMixingAlgorithm(cars, start);
+				mixingAlgorithm.setPool(optimizationPool);
+				mixingAlgorithm.mix();
+				if (isRouteTooLong = Arrays.stream(cars).anyMatch(car -> car.getMixResult() > maxLength))
+					cars = Stream.concat(Stream.of(cars), Stream.of(getCar())).toArray(Car[]::new);
+			}
+
+		} catch (IllegalStateException e) {
+			failure.compareAndSet(null, e);
+			return null;
+		}
+
+		return Arrays.stream(cars).filter(car -> !car.isEmpty()).toArray(Car[]::new);
+	}
+
+	/**
+	 * @return mixing algorithm of this Logistics Process for the cars, annealing
+	 *         of each start gets its own seed
+	 */
+	private MixingAlgorithm getMixingAlgorithm(Car[] cars, int start) {
+		if (mixingMode != MixingMode.SIMULATED_ANNEALING)
+			return kernighanLinForCarsFactory.get(cars);
+
+		SimulatedAnnealingAlgorithm<Car> simulatedAnnealingAlgorithm = simulatedAnnealingForCarsFactory.get(cars);
+		simulatedAnnealingAlgorithm.setSeed(seed + start);
+		return simulatedAnnealingAlgorithm;
+	}
+
+	/**
+	 * Tasks of the same hub follow each other, so that cars are filled with
+	 * neighbours:</br>
+	 * - NEAREST_HUB: from the passenger nearest to the hub, each next passenger
+	 * is the nearest to the previous one;</br>
+	 * - SWEEP: passengers are sorted by polar angle around the hub, starting
+	 * from random angle;</br>
+	 * - RANDOM: tasks are shuffled.
+	 * 
+	 * @return tasks in order of the start mode
+	 */
+	private List<Task> getOrderedTasks(int start) {
+		StartMode startMode = StartMode.values()[start % StartMode.values().length];
+		Random random = new Random(seed + start);
+		List<Task> ordered = new ArrayList<>(tasks);
+
+		switch (startMode) {
+		case NEAREST_HUB:
+			ordered.sort(Comparator.comparingInt(task -> getPickAndDropByTask(task)[0].getIndex()));
+			chainNearestPassengers(ordered);
+			break;
+		case SWEEP:
+			double offset = random.nextDouble() * 2 * Math.PI;
+			ordered.sort(Comparator.comparingInt((Task task) -> getPickAndDropByTask(task)[0].getIndex())
+					.thenComparingDouble(task -> getSweepAngle(getPickAndDropByTask(task), offset)));
+			break;
+		case RANDOM:
+			Collections.shuffle(ordered, random);
+			break;
+		default:
+		}
+
+		return ordered;
+	}
+
+	/**
+	 * Reorders tasks of each hub, so that the first passenger is the nearest to
+	 * the hub, and each next passenger is the nearest to the previous one
+	 * 
+	 * @param ordered
+	 *            -- tasks sorted by hub
+	 */
+	private void chainNearestPassengers(List<Task> ordered) {
+		int[][] indexes = ordered.stream().map(this::getPickAndDropByTask)
+				.map(p -> new int[] { p[0].getIndex(), p[1].getIndex() }).toArray(int[][]::new);
+
+		for (int i = 0; i < indexes.length; i++) {
+			int from = i > 0 && indexes[i - 1][0] == indexes[i][0] ? indexes[i - 1][1] : indexes[i][0];
+			int nearest = i;
+			for (int j = i + 1; j < indexes.length && indexes[j][0] == indexes[i][0]; j++)
+				if (globalMatrix[from][indexes[j][1]] < globalMatrix[from][indexes[nearest][1]])
+					nearest = j;
+
+			Collections.swap(ordered, i, nearest);
+			int[] tmp = indexes[i];
+			indexes[i] = indexes[nearest];
+			indexes[nearest] = tmp;
+		}
+	}
+
+	/**
+	 * @return polar angle of drop off location around pick up location, turned
+	 *         by offset, in range [0, 2 * PI)
+	 */
+	private double getSweepAngle(GoogleMapsPoint[] pickAndDrop, double offset) {
+		double angle = Math.atan2(pickAndDrop[1].getLatitude() - pickAndDrop[0].getLatitude(),
+				pickAndDrop[1].getLongtitude() - pickAndDrop[0].getLongtitude()) - offset;
+		return (angle % (2 * Math.PI) + 2 * Math.PI) % (2 * Math.PI);
+	}
+
+	/**
+	 * @return new empty car which shares route cache of this Logistics Process
+	 */
+	private Car getCar() {
+		Car car = carFactory.get(CAPACITY, globalMatrix);
+		car.setRouteCache(routeCache);
+		return car;
+	}
+
 	/**
 	 * @param status
 	 *            -- error status, full list can be found in messages.properties
@@ -243,19 +444,27 @@ public class LogisticsProcess {
 		return toReturn;
 	}
 
+	/**
+	 * Populates this.cars array with new cars filled in task order
+	 */
+	private void fillCars() {
+		cars = getCars(tasks);
+	}
+
 	/**
 	 * Calculates the minimal amount of cars needed to allocate all of the available
 	 * passengers</br>
-	 * Based on calculated amount, populates this.cars array with new cars
+	 * Based on calculated amount, populates new cars in order of tasks
 	 */
-	private void fillCars() {
-		cars = new Car[tasks.size() / CAPACITY + (tasks.size() % CAPACITY > 0 ? 1 : 0)];
-		IntStream.range(0, cars.length).forEach(i -> cars[i] = carFactory.get(CAPACITY, globalMatrix));
+	private Car[] getCars(List<Task> tasks) {
+		Car[] cars = new Car[tasks.size() / CAPACITY + (tasks.size() % CAPACITY > 0 ? 1 : 0)];
+		IntStream.range(0, cars.length).forEach(i -> cars[i] = getCar());
 
 		AtomicInteger counter = new AtomicInteger(0);
 		tasks.stream().map(this::getPickAndDropByTask) //
 				.forEach(p -> cars[counter.getAndIncrement() / CAPACITY] //
 						.putPassenger(p[0].getIndex(), p[1].getIndex()));
+		return cars;
 	}
 
 	/**
@@ -372,9 +581,11 @@ public class LogisticsProcess {
 	}
 
 	/**
-	 * Unlinks needless objects and calls Garbage Collector
+	 * Shuts down optimization pool, unlinks needless objects and calls Garbage
+	 * Collector
 	 */
 	private void cleanUp() {
+		optimizationPool.shutdownNow();
 		globalMatrix = null;
 		ids = null;
 		tasks = null;
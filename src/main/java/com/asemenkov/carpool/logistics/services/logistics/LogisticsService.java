@@ -5,8 +5,9 @@ import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import com.asemenkov.carpool.logistics.services.enums.MixingMode;
 import com.asemenkov.carpool.logistics.services.exceptions.LogisticsProcessNotFoundException;
-import com.asemenkov.carpool.logistics.utils.Factories.DuoFactory;
+import com.asemenkov.carpool.logistics.utils.Factories.TriFactory;
 
 /**
  * @author asemenkov
@@ -17,11 +18,16 @@ import com.asemenkov.carpool.logistics.utils.Factories.DuoFactory;
 public class LogisticsService {
 
 	@Autowired
-	private DuoFactory<String, long[], LogisticsProcess> logisticsProcessFactory;
+	private TriFactory<String, long[], MixingMode, LogisticsProcess> logisticsProcessFactory;
 
+	/**
+	 * @param mixingMode
+	 *            -- mixing algorithm, or null for the one from
+	 *            aplication.properties
+	 */
 	@Cacheable(key = "#id")
-	public LogisticsProcess startLogisticsProcessWithId(String id, long[] tasks) {
-		LogisticsProcess logisticsProcess = logisticsProcessFactory.get(id, tasks);
+	public LogisticsProcess startLogisticsProcessWithId(String id, long[] tasks, MixingMode mixingMode) {
+		LogisticsProcess logisticsProcess = logisticsProcessFactory.get(id, tasks, mixingMode);
 		logisticsProcess.startLogisticsProcess();
 		return logisticsProcess;
 	}
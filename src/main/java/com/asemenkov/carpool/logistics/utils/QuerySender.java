@@ -1,16 +1,13 @@
 package com.asemenkov.carpool.logistics.utils;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.Reader;
 import java.net.URL;
 import java.nio.charset.Charset;
 
 import org.json.JSONObject;
-
-import com.asemenkov.carpool.logistics.services.googlemaps.PointsNeighbourship;
+import org.json.JSONTokener;
 
 /**
  * @author asemenkov
@@ -32,14 +29,23 @@ public class QuerySender {
 	 *            like this: key1=value1&key2=value2&key3=value3
 	 */
 	public JSONObject sendQuery(String queryParams) {
+		return sendQuery(queryParams,
+				is -> new JSONObject(new JSONTokener(new InputStreamReader(is, Charset.forName("UTF-8")))));
+	}
+
+	/**
+	 * @param queryParams
+	 *            -- parameters must be concatenated and without '?'</br>
+	 *            like this: key1=value1&key2=value2&key3=value3
+	 * @param reader
+	 *            -- reads the response while it arrives
+	 * @return result of the reader, or null if the response can't be read
+	 */
+	public <T> T sendQuery(String queryParams, ResponseReader<T> reader) {
 		InputStream is = null;
 		try {
 			is = new URL(url + path + '?' + queryParams).openStream();
-			PointsNeighbourship.updateLastRequestTime();
-			BufferedReader rd = new BufferedReader(new InputStreamReader(is, Charset.forName("UTF-8")));
-			String jsonText = readAll(rd);
-			JSONObject json = new JSONObject(jsonText);
-			return json;
+			return reader.read(is);
 		} catch (IOException e) {
 			e.printStackTrace();
 			return null;
@@ -53,11 +59,8 @@ public class QuerySender {
 		}
 	}
 
-	private String readAll(Reader rd) throws IOException {
-		StringBuilder sb = new StringBuilder();
-		int cp;
-		while ((cp = rd.read()) != -1)
-			sb.append((char) cp);
-		return sb.toString();
+	@FunctionalInterface
+	public interface ResponseReader<T> {
+		T read(InputStream is) throws IOException;
 	}
 }
@@ -12,11 +12,15 @@ import com.asemenkov.carpool.logistics.repositories.TaskRepository;
 import com.asemenkov.carpool.logistics.services.algorithms.Car;
 import com.asemenkov.carpool.logistics.services.algorithms.KernighanLinAlgorithm;
 import com.asemenkov.carpool.logistics.services.algorithms.LittlesAlgorithm;
+import com.asemenkov.carpool.logistics.services.algorithms.SimulatedAnnealingAlgorithm;
+import com.asemenkov.carpool.logistics.services.enums.MixingMode;
 import com.asemenkov.carpool.logistics.services.googlemaps.GoogleMapsPoint;
 import com.asemenkov.carpool.logistics.services.googlemaps.PointsNeighbourship;
+import com.asemenkov.carpool.logistics.services.logistics.LogisticsProcess;
 import com.asemenkov.carpool.logistics.services.logistics.LogisticsService;
 import com.asemenkov.carpool.logistics.utils.Factories.DuoFactory;
 import com.asemenkov.carpool.logistics.utils.Factories.MonoFactory;
+import com.asemenkov.carpool.logistics.utils.Factories.TriFactory;
 
 /**
  * @author asemenkov
@@ -39,6 +43,10 @@ public abstract class AbstractTest extends AbstractTestNGSpringContextTests {
 
 	protected @Autowired MonoFactory<Car[], KernighanLinAlgorithm<Car>> kernighanLinForCarsFactory;
 
+	protected @Autowired MonoFactory<Car[], SimulatedAnnealingAlgorithm<Car>> simulatedAnnealingForCarsFactory;
+
 	protected @Autowired DuoFactory<GoogleMapsPoint[], GoogleMapsPoint[], PointsNeighbourship> pointsNeighbourshipFactory;
 
+	protected @Autowired TriFactory<String, long[], MixingMode, LogisticsProcess> logisticsProcessFactory;
+
 }
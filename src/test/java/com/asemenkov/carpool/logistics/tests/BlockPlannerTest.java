@@ -0,0 +1,87 @@
+package com.asemenkov.carpool.logistics.tests;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.asemenkov.carpool.logistics.services.googlemaps.BlockPlanner;
+
+/**
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+@Test
+public class BlockPlannerTest extends AbstractTest {
+
+	private final BlockPlanner blockPlanner = new BlockPlanner(100, 10);
+
+	@Test
+	public void testWholeMatrix() {
+		boolean[][] missing = getMissing(32, IntStream.range(0, 32).toArray());
+		List<int[][]> blocks = blockPlanner.plan(missing);
+
+		verifyBlocks(missing, blocks, 100, 10);
+		Assert.assertEquals(blocks.size(), 16, "Wrong number of requests.");
+	}
+
+	@Test
+	public void testRectangularBlocks() {
+		BlockPlanner blockPlanner = new BlockPlanner(100, 25);
+		boolean[][] missing = getMissing(45, IntStream.range(0, 45).toArray());
+		List<int[][]> blocks = blockPlanner.plan(missing);
+
+		verifyBlocks(missing, blocks, 100, 25);
+		Assert.assertEquals(blocks.size(), 21, "Wrong number of requests.");
+	}
+
+	@Test
+	public void testNewPointsOnly() {
+		boolean[][] missing = getMissing(32, 3, 17);
+		List<int[][]> blocks = blockPlanner.plan(missing);
+
+		verifyBlocks(missing, blocks, 100, 10);
+		Assert.assertTrue(blocks.size() <= 8, "Too many requests: " + blocks.size());
+	}
+
+	@Test
+	public void testNothingMissing() {
+		Assert.assertTrue(blockPlanner.plan(new boolean[12][12]).isEmpty(), "Nothing must be requested.");
+	}
+
+	/**
+	 * @return matrix where all the cells of the new points are missing, except
+	 *         the diagonal
+	 */
+	private boolean[][] getMissing(int size, int... newPoints) {
+		boolean[] isNew = new boolean[size];
+		for (int point : newPoints)
+			isNew[point] = true;
+
+		boolean[][] missing = new boolean[size][size];
+		for (int row = 0; row < size; row++)
+			for (int col = 0; col < size; col++)
+				missing[row][col] = row != col && (isNew[row] || isNew[col]);
+		return missing;
+	}
+
+	private void verifyBlocks(boolean[][] missing, List<int[][]> blocks, int maxElements, int maxPoints) {
+		boolean[][] covered = new boolean[missing.length][missing.length];
+
+		for (int[][] block : blocks) {
+			Assert.assertTrue(block[0].length <= maxPoints, "Too many origins.");
+			Assert.assertTrue(block[1].length <= maxPoints, "Too many destinations.");
+			Assert.assertTrue(block[0].length * block[1].length <= maxElements, "Too many elements.");
+
+			for (int origin : block[0])
+				for (int destination : block[1])
+					covered[origin][destination] = true;
+		}
+
+		for (int row = 0; row < missing.length; row++)
+			for (int col = 0; col < missing.length; col++)
+				Assert.assertTrue(covered[row][col] || !missing[row][col], "Missing cell isn't requested.");
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.asemenkov.carpool.logistics.tests;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.asemenkov.carpool.logistics.services.googlemaps.DistanceMatrixFetcher;
+import com.asemenkov.carpool.logistics.utils.QuerySender;
+import com.asemenkov.carpool.logistics.utils.WaitUtil;
+
+/**
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+@Test
+public class DistanceMatrixFetcherTest extends AbstractTest {
+
+	@Test
+	public void testElementsPerSecond() {
+		DistanceMatrixFetcher fetcher = new DistanceMatrixFetcher(new StubQuerySender(), 400, 4);
+		long time = System.currentTimeMillis();
+
+		CompletableFuture<?>[] responses = new CompletableFuture<?>[10];
+		for (int i = 0; i < responses.length; i++)
+			responses[i] = fetcher.fetch(this, "query=" + i, 100, is -> null);
+		CompletableFuture.allOf(responses).join();
+		fetcher.close();
+
+		long duration = System.currentTimeMillis() - time;
+		Assert.assertTrue(duration >= 1400, "Quota is exceeded: " + duration + "ms");
+		Assert.assertTrue(duration < 3000, "Requests are too slow: " + duration + "ms");
+	}
+
+	/**
+	 * The first request takes all the tokens, so the dispatcher waits for 1
+	 * second before the next one, and both owners are queued by then
+	 */
+	@Test
+	public void testOwnersAreServedInTurn() {
+		StubQuerySender querySender = new StubQuerySender();
+		DistanceMatrixFetcher fetcher = new DistanceMatrixFetcher(querySender, 1000, 1);
+		Object huge = new Object(), small = new Object();
+
+		CompletableFuture<?>[] responses = new CompletableFuture<?>[6];
+		responses[0] = fetcher.fetch(huge, "huge=0", 1000, is -> null);
+		responses[0].join();
+		for (int i = 1; i < 4; i++)
+			responses[i] = fetcher.fetch(huge, "huge=" + i, 1000, is -> null);
+		for (int i = 4; i < 6; i++)
+			responses[i] = fetcher.fetch(small, "small=" + i, 1, is -> null);
+		CompletableFuture.allOf(responses).join();
+		fetcher.close();
+
+		Assert.assertEquals(querySender.queries,
+				Arrays.asList("huge=0", "huge=1", "small=4", "huge=2", "small=5", "huge=3"),
+				"Owners are not served in turn.");
+	}
+
+	/**
+	 * The second request is cancelled while the dispatcher waits for its tokens,
+	 * so the tokens are given to the third one
+	 */
+	@Test
+	public void testCancelledRequestIsDropped() {
+		StubQuerySender querySender = new StubQuerySender();
+		DistanceMatrixFetcher fetcher = new DistanceMatrixFetcher(querySender, 1000, 1);
+
+		fetcher.fetch(this, "first", 1000, is -> null).join();
+		long time = System.currentTimeMillis();
+		CompletableFuture<?> cancelled = fetcher.fetch(this, "cancelled", 1000, is -> null);
+		WaitUtil.pause(100);
+		cancelled.cancel(false);
+		fetcher.fetch(this, "third", 1000, is -> null).join();
+		fetcher.close();
+
+		long duration = System.currentTimeMillis() - time;
+		Assert.assertEquals(querySender.queries, Arrays.asList("first", "third"), "Cancelled request is sent.");
+		Assert.assertTrue(duration < 1800, "Tokens of cancelled request are lost: " + duration + "ms");
+	}
+
+	private static class StubQuerySender extends QuerySender {
+
+		private final List<String> queries = new CopyOnWriteArrayList<>();
+
+		private StubQuerySender() {
+			super(null, null);
+		}
+
+		@Override
+		public <T> T sendQuery(String queryParams, ResponseReader<T> reader) {
+			queries.add(queryParams);
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,67 @@
+package com.asemenkov.carpool.logistics.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.asemenkov.carpool.logistics.services.enums.Status;
+import com.asemenkov.carpool.logistics.services.googlemaps.DistanceMatrixParser;
+
+/**
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+@Test
+public class DistanceMatrixParserTest extends AbstractTest {
+
+	private static final String RESPONSE = "{\"destination_addresses\":[\"A\",\"B\"],\"origin_addresses\":[\"C\",\"D\"],"
+			+ "\"rows\":[{\"elements\":["
+			+ "{\"distance\":{\"text\":\"1.2 km\",\"value\":1200},\"duration\":{\"text\":\"3 mins\",\"value\":180},\"status\":\"OK\"},"
+			+ "{\"distance\":{\"text\":\"3.4 km\",\"value\":3400},\"duration\":{\"text\":\"7 mins\",\"value\":420},\"status\":\"OK\"}]},"
+			+ "{\"elements\":["
+			+ "{\"distance\":{\"text\":\"5.6 km\",\"value\":5600},\"duration\":{\"text\":\"9 mins\",\"value\":540},\"status\":\"OK\"},"
+			+ "{\"distance\":{\"text\":\"7.8 km\",\"value\":7800},\"duration\":{\"text\":\"12 mins\",\"value\":720},\"status\":\"%s\"}]}],"
+			+ "\"status\":\"%s\"}";
+
+	@Test
+	public void testCellsAreWrittenAtBlockIndexes() throws IOException {
+		int[][] distances = new int[4][4], durations = new int[4][4];
+		DistanceMatrixParser parser = new DistanceMatrixParser(new int[] { 1, 3 }, new int[] { 0, 2 }, distances,
+				durations);
+
+		Assert.assertEquals(parser.read(getResponse("OK", "OK")), Status.RUNNING_REQUESTS_TO_GOOGLE_MAPS);
+		Assert.assertTrue(Arrays.deepEquals(distances, new int[][] { { 0, 0, 0, 0 }, { 1200, 0, 3400, 0 },
+				{ 0, 0, 0, 0 }, { 5600, 0, 7800, 0 } }), "Wrong distance matrix.");
+		Assert.assertTrue(Arrays.deepEquals(durations, new int[][] { { 0, 0, 0, 0 }, { 180, 0, 420, 0 },
+				{ 0, 0, 0, 0 }, { 540, 0, 720, 0 } }), "Wrong duration matrix.");
+	}
+
+	@Test
+	public void testFailedResponses() throws IOException {
+		int[][] distances = new int[2][2], durations = new int[2][2];
+		int[] indexes = { 0, 1 };
+
+		DistanceMatrixParser parser = new DistanceMatrixParser(indexes, indexes, distances, durations);
+		Assert.assertEquals(parser.read(getResponse("ZERO_RESULTS", "OK")),
+				Status.ERROR_REQUESTS_TO_GOOGLE_MAPS_FAIL_TO_BUILD_ROUTE);
+		Assert.assertEquals(parser.getMessage(), "ZERO_RESULTS");
+
+		parser = new DistanceMatrixParser(indexes, indexes, distances, durations);
+		Assert.assertEquals(parser.read(getResponse("OK", "OVER_QUERY_LIMIT")),
+				Status.ERROR_REQUESTS_TO_GOOGLE_MAPS_ENCOUNTER_PROBLEM);
+		Assert.assertEquals(parser.getMessage(), "OVER_QUERY_LIMIT");
+
+		parser = new DistanceMatrixParser(new int[] { 0, 1, 1 }, indexes, distances, durations);
+		Assert.assertEquals(parser.read(getResponse("OK", "OK")), Status.ERROR_REQUESTS_TO_GOOGLE_MAPS_ENCOUNTER_PROBLEM);
+		Assert.assertEquals(parser.getMessage(), "Response is incomplete");
+	}
+
+	private ByteArrayInputStream getResponse(String elementStatus, String status) {
+		return new ByteArrayInputStream(String.format(RESPONSE, elementStatus, status).getBytes(StandardCharsets.UTF_8));
+	}
+
+}
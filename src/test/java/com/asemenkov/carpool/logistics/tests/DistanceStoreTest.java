@@ -0,0 +1,94 @@
+package com.asemenkov.carpool.logistics.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.asemenkov.carpool.logistics.services.googlemaps.DistanceStore;
+import com.asemenkov.carpool.logistics.services.googlemaps.GoogleMapsPoint;
+import com.asemenkov.carpool.logistics.utils.WaitUtil;
+
+/**
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+@Test
+public class DistanceStoreTest extends AbstractTest {
+
+	private static final GoogleMapsPoint[] POINTS = IntStream.range(0, 40)
+			.mapToObj(i -> new GoogleMapsPoint(50.4 + i * 0.001, 30.5 + i * 0.002)).toArray(GoogleMapsPoint[]::new);
+
+	@Test
+	public void testStoreSurvivesReopeningAndGrowth() throws IOException {
+		Path directory = Files.createTempDirectory("distances");
+		File file = directory.resolve("distances.store").toFile();
+		directory.toFile().deleteOnExit();
+		file.deleteOnExit();
+
+		DistanceStore store = new DistanceStore(file.getPath(), 5, 16, 60000);
+		for (int from = 0; from < POINTS.length; from++)
+			for (int to = 0; to < POINTS.length; to++)
+				store.put(POINTS[from], POINTS[to], from * 1000 + to, to * 1000 + from);
+		store.close();
+		Assert.assertEquals(directory.toFile().list(), new String[] { "distances.store" }, "Grown table isn't renamed.");
+
+		DistanceStore reopened = new DistanceStore(file.getPath(), 5, 16, 60000);
+		Assert.assertEquals(reopened.getSize(), POINTS.length * POINTS.length, "Wrong number of entries.");
+		Assert.assertTrue(reopened.getCapacity() > 1024, "Store doesn't grow.");
+
+		for (int from = 0; from < POINTS.length; from++)
+			for (int to = 0; to < POINTS.length; to++) {
+				int[] cell = reopened.get(POINTS[from], POINTS[to]);
+				Assert.assertNotNull(cell, "Pair isn't stored.");
+				Assert.assertEquals(cell[0], from * 1000 + to, "Wrong distance.");
+				Assert.assertEquals(cell[1], to * 1000 + from, "Wrong duration.");
+			}
+		reopened.close();
+	}
+
+	@Test
+	public void testStoreIsLockedWhileOpen() throws IOException {
+		File file = File.createTempFile("distances", ".store");
+		file.deleteOnExit();
+
+		DistanceStore store = new DistanceStore(file.getPath(), 5, 16, 60000);
+		IOException e = Assert.expectThrows(IOException.class, () -> new DistanceStore(file.getPath(), 5, 16, 60000));
+		Assert.assertTrue(e.getMessage().contains("is locked by another application"), "Wrong message: " + e.getMessage());
+
+		for (int from = 0; from < POINTS.length; from++)
+			store.put(POINTS[from], POINTS[0], from, from);
+		store.close();
+
+		DistanceStore reopened = new DistanceStore(file.getPath(), 5, 16, 60000);
+		Assert.assertEquals(reopened.getSize(), POINTS.length, "Store isn't unlocked on close.");
+		reopened.close();
+	}
+
+	@Test
+	public void testRoundedKeysAndExpiration() throws IOException {
+		File file = File.createTempFile("distances", ".store");
+		file.deleteOnExit();
+
+		GoogleMapsPoint from = new GoogleMapsPoint(50.4501, 30.5234);
+		GoogleMapsPoint to = new GoogleMapsPoint(50.4547, 30.5238);
+		DistanceStore store = new DistanceStore(file.getPath(), 3, 16, 200);
+
+		store.put(from, to, 600, 120);
+		Assert.assertEquals(store.get(new GoogleMapsPoint(50.45012, 30.52338), to), new int[] { 600, 120 },
+				"Rounded point isn't found.");
+		Assert.assertNull(store.get(to, from), "Reverse pair is found.");
+
+		WaitUtil.pause(300);
+		Assert.assertNull(store.get(from, to), "Expired pair is found.");
+
+		store.put(from, to, 700, 140);
+		Assert.assertEquals(store.get(from, to), new int[] { 700, 140 }, "Expired pair isn't renewed.");
+		Assert.assertEquals(store.getSize(), 1, "Expired slot isn't reused.");
+	}
+
+}
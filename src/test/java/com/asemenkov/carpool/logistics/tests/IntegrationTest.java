@@ -27,7 +27,7 @@ public class IntegrationTest extends AbstractTest {
 		SoftAssert softAssert = new SoftAssert();
 
 		String processId = "TEST-" + System.currentTimeMillis();
-		logisticsService.startLogisticsProcessWithId(processId, tasks).getLogisticsDto().getId();
+		logisticsService.startLogisticsProcessWithId(processId, tasks, null).getLogisticsDto().getId();
 		WaitUtil.pause(10000);
 
 		LogisticsDto dto = logisticsService.getLogisticsProcessById(processId).getLogisticsDto();
@@ -47,7 +47,7 @@ public class IntegrationTest extends AbstractTest {
 		SoftAssert softAssert = new SoftAssert();
 
 		String processId = "TEST-" + System.currentTimeMillis();
-		logisticsService.startLogisticsProcessWithId(processId, tasks).getLogisticsDto().getId();
+		logisticsService.startLogisticsProcessWithId(processId, tasks, null).getLogisticsDto().getId();
 		WaitUtil.pause(10000);
 
 		LogisticsDto dto = logisticsService.getLogisticsProcessById(processId).getLogisticsDto();
@@ -67,7 +67,7 @@ public class IntegrationTest extends AbstractTest {
 		SoftAssert softAssert = new SoftAssert();
 
 		String processId = "TEST-" + System.currentTimeMillis();
-		logisticsService.startLogisticsProcessWithId(processId, tasks).getLogisticsDto().getId();
+		logisticsService.startLogisticsProcessWithId(processId, tasks, null).getLogisticsDto().getId();
 		WaitUtil.pause(20000);
 
 		LogisticsDto dto = logisticsService.getLogisticsProcessById(processId).getLogisticsDto();
@@ -87,7 +87,7 @@ public class IntegrationTest extends AbstractTest {
 		SoftAssert softAssert = new SoftAssert();
 
 		String processId = "TEST-" + System.currentTimeMillis();
-		logisticsService.startLogisticsProcessWithId(processId, tasks).getLogisticsDto().getId();
+		logisticsService.startLogisticsProcessWithId(processId, tasks, null).getLogisticsDto().getId();
 		WaitUtil.pause(500);
 		logisticsService.getLogisticsProcessById(processId).abortLogisticsProcess();
 
@@ -3,13 +3,18 @@ package com.asemenkov.carpool.logistics.tests;
 import static com.asemenkov.carpool.logistics.RealWorldData.REAL_DURATIONS;
 
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import com.asemenkov.carpool.logistics.services.algorithms.Car;
 import com.asemenkov.carpool.logistics.services.algorithms.KernighanLinAlgorithm;
+import com.asemenkov.carpool.logistics.services.algorithms.RouteCache;
+import com.asemenkov.carpool.logistics.services.algorithms.SimulatedAnnealingAlgorithm;
 import com.asemenkov.carpool.logistics.utils.CustomLogger;
 
 /**
@@ -25,6 +30,8 @@ public class KernighanLinAlgorithmTest extends AbstractTest {
 	private final static int[][] POINTS = { { 6, 0 }, { 6, 1 }, { 5, 2 }, { 6, 3 }, { 5, 4 }, { 5, 7 } };
 	private final static int[][] FAKE_MATRIX = new int[REAL_DURATIONS.length][REAL_DURATIONS.length];
 
+	private @Autowired ForkJoinPool optimizationPool;
+
 	@BeforeClass
 	public void divideDistancesByTwo() {
 		for (int i = 0; i < FAKE_MATRIX.length; i++)
@@ -79,6 +86,160 @@ public class KernighanLinAlgorithmTest extends AbstractTest {
 		verifyCars(cars, time1, time2);
 	}
 
+	@Test
+	public void testKernighanLinMixingWithRouteCache() {
+		RouteCache routeCache = new RouteCache(1000);
+		Car[] cars = Arrays.stream(POINTS) //
+				.map(p -> carFactory.get(4, FAKE_MATRIX).putPassenger(p[0], p[1])) //
+				.toArray(Car[]::new);
+		Arrays.stream(cars).forEach(car -> car.setRouteCache(routeCache));
+
+		KernighanLinAlgorithm<Car> kernighanLinAlgorithm = kernighanLinForCarsFactory.get(cars);
+
+		long time1 = System.currentTimeMillis();
+		kernighanLinAlgorithm.mix();
+		long time2 = System.currentTimeMillis();
+		verifyCars(cars, time1, time2);
+
+		CustomLogger.log(routeCache);
+		Assert.assertTrue(routeCache.getHits() > 0, "Route cache is never hit.");
+		Assert.assertEquals(routeCache.getSize(), routeCache.getMisses(), "Route is solved twice.");
+	}
+
+	@Test
+	public void testKernighanLinMixingInOptimizationPool() {
+		Car[] cars = Arrays.stream(POINTS) //
+				.map(p -> carFactory.get(4, FAKE_MATRIX).putPassenger(p[0], p[1])) //
+				.toArray(Car[]::new);
+
+		KernighanLinAlgorithm<Car> kernighanLinAlgorithm = kernighanLinForCarsFactory.get(cars);
+		kernighanLinAlgorithm.setPool(optimizationPool);
+
+		long time1 = System.currentTimeMillis();
+		try {
+			kernighanLinAlgorithm.mix();
+		} finally {
+			optimizationPool.shutdown();
+		}
+		long time2 = System.currentTimeMillis();
+		verifyCars(cars, time1, time2);
+
+		Assert.assertTrue(optimizationPool.getParallelism() <= 4, "Parallelism isn't limited.");
+		Assert.assertTrue(optimizationPool.getStealCount() + optimizationPool.getPoolSize() > 0, "Pool isn't used.");
+	}
+
+	@Test
+	public void testSimulatedAnnealingMixing() {
+		Car[] cars = Arrays.stream(POINTS) //
+				.map(p -> carFactory.get(4, FAKE_MATRIX).putPassenger(p[0], p[1])) //
+				.toArray(Car[]::new);
+
+		SimulatedAnnealingAlgorithm<Car> simulatedAnnealingAlgorithm = simulatedAnnealingForCarsFactory.get(cars);
+
+		long time1 = System.currentTimeMillis();
+		simulatedAnnealingAlgorithm.mix();
+		long time2 = System.currentTimeMillis();
+		verifyCars(cars, time1, time2);
+	}
+
+	@Test
+	public void testSimulatedAnnealingKeepsMaxLength() {
+		int[][] matrix = { { 0, 10, 10 }, { 10, 0, 5 }, { 10, 5, 0 } };
+		Car[] cars = { carFactory.get(4, matrix).putPassenger(0, 1).putPassenger(0, 2), carFactory.get(4, matrix) };
+		Arrays.stream(cars).forEach(car -> car.setMaxLength(12));
+
+		simulatedAnnealingForCarsFactory.get(cars).mix();
+
+		Assert.assertTrue(Arrays.stream(cars).allMatch(car -> car.getMixResult() <= 12), "Max length is exceeded.");
+		Assert.assertEquals(Arrays.stream(cars).mapToInt(Car::getMixResult).sum(), 20, "Wrong total length.");
+	}
+
+	@Test
+	public void testToleratedMove() {
+		int[][] matrix = { { 0, 10, 11 }, { 10, 0, 1 }, { 11, 1, 0 } };
+		Car[] cars = { carFactory.get(4, matrix).putPassenger(0, 1), carFactory.get(4, matrix).putPassenger(0, 2),
+				carFactory.get(4, matrix) };
+		Arrays.stream(cars).forEach(Car::mixOneItem);
+
+		Assert.assertEquals(cars[0].moveItems(cars[1], 0), -10, "Improving move isn't made.");
+		Assert.assertEquals(cars[0].moveItems(cars[1], 0), 0, "Worsening move is made without tolerance.");
+
+		Object[] snapshots = Arrays.stream(cars).map(Car::getSnapshot).toArray();
+		Car full = cars[0].isEmpty() ? cars[1] : cars[0];
+		Assert.assertEquals(full.moveItems(cars[2], 11), 10, "Tolerated move isn't made.");
+
+		for (int i = 0; i < cars.length; i++)
+			cars[i].restoreSnapshot(snapshots[i]);
+		Assert.assertEquals(Arrays.stream(cars).mapToInt(Car::getMixResult).sum(), 11, "Snapshot isn't restored.");
+	}
+
+	@Test
+	public void testRelocationEmptiesCar() {
+		int[][] matrix = { { 0, 10, 11 }, { 10, 0, 1 }, { 11, 1, 0 } };
+		Car[] cars = { carFactory.get(4, matrix).putPassenger(0, 1), carFactory.get(4, matrix).putPassenger(0, 2) };
+
+		cars[0].relocateOneItem(cars[1]);
+
+		Assert.assertTrue(cars[0].isEmpty() ^ cars[1].isEmpty(), "Passenger isn't relocated.");
+		Assert.assertEquals(cars[0].getMixResult() + cars[1].getMixResult(), 11, "Wrong total length.");
+	}
+
+	@Test
+	public void testSingleSwap() {
+		int[][] matrix = { { 0, 5, 50, 9, 9 }, { 5, 0, 1, 9, 9 }, { 50, 1, 0, 9, 9 }, { 9, 9, 9, 0, 1 },
+				{ 9, 9, 9, 1, 0 } };
+		Car[] cars = { carFactory.get(2, matrix).putPassenger(0, 1).putPassenger(3, 4),
+				carFactory.get(2, matrix).putPassenger(3, 4).putPassenger(0, 2) };
+
+		cars[0].swapOneItem(cars[1]);
+
+		Assert.assertEquals(cars[0].getSeatsOccupied() + cars[1].getSeatsOccupied(), 4, "Passengers are lost.");
+		Assert.assertEquals(cars[0].getMixResult() + cars[1].getMixResult(), 7, "Passengers aren't swapped.");
+	}
+
+	@Test
+	public void testRoundRobinReproducibility() {
+		int[][][] routes = new int[3][][];
+
+		for (int attempt = 0; attempt < routes.length; attempt++) {
+			Car[] cars = IntStream.range(0, 31) //
+					.mapToObj(i -> carFactory.get(4, FAKE_MATRIX).putPassenger(i % 3, 3 + i % (FAKE_MATRIX.length - 3))) //
+					.toArray(Car[]::new);
+
+			kernighanLinForCarsFactory.get(cars).mix();
+			routes[attempt] = Arrays.stream(cars).map(Car::getSuggestedRoute).flatMap(Arrays::stream)
+					.toArray(int[][]::new);
+		}
+
+		Assert.assertTrue(Arrays.deepEquals(routes[0], routes[1]), "Results are not reproducible.");
+		Assert.assertTrue(Arrays.deepEquals(routes[0], routes[2]), "Results are not reproducible.");
+	}
+
+	@Test
+	public void testConcurrentMixing() {
+		Car[] cars = Arrays.stream(POINTS) //
+				.map(p -> carFactory.get(4, FAKE_MATRIX).putPassenger(p[0], p[1])) //
+				.toArray(Car[]::new);
+
+		IntStream.range(0, 1000).parallel().forEach(i -> {
+			int one = i % cars.length, another = (i / cars.length + one + 1) % cars.length;
+			if (one != another)
+				cars[one].mixTwoItems(cars[another]);
+		});
+
+		long[] passengers = Arrays.stream(cars) //
+				.flatMapToLong(car -> IntStream.range(0, car.getSeatsOccupied()) //
+						.mapToLong(i -> (long) car.getPicks()[i] << 32 | car.getDrops()[i])) //
+				.sorted().toArray();
+		long[] expected = Arrays.stream(POINTS).mapToLong(p -> (long) p[0] << 32 | p[1]).sorted().toArray();
+		Assert.assertEquals(passengers, expected, "Passengers are lost.");
+
+		for (Car car : cars) {
+			int length = Arrays.stream(car.getSuggestedRoute()).mapToInt(r -> FAKE_MATRIX[r[0]][r[1]]).sum();
+			Assert.assertEquals(car.getMixResult(), length, "Route length is inconsistent.");
+		}
+	}
+
 	private void verifyCars(Car[] cars, long time1, long time2) {
 		long totalLength = Arrays.stream(cars).mapToInt(Car::getMixResult).sum();
 		long totalCars = Arrays.stream(cars).filter(car -> car.getSeatsOccupied() != 0).count();
@@ -0,0 +1,211 @@
+package com.asemenkov.carpool.logistics.tests;
+
+import static com.asemenkov.carpool.logistics.RealWorldData.REAL_DURATIONS;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.asemenkov.carpool.logistics.services.algorithms.BestFirstLittlesAlgorithm;
+import com.asemenkov.carpool.logistics.services.algorithms.FlatLittlesAlgorithm;
+import com.asemenkov.carpool.logistics.services.algorithms.LittlesAlgorithm;
+import com.asemenkov.carpool.logistics.services.algorithms.ParallelLittlesAlgorithm;
+import com.asemenkov.carpool.logistics.services.algorithms.TourHeuristic;
+import com.asemenkov.carpool.logistics.utils.CustomLogger;
+
+/**
+ * Compares alternative engines of Littles algorithm with the recursive one
+ *
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+@Test
+public class LittlesEnginesTest extends AbstractTest {
+
+	private final LittlesAlgorithm recursive = new LittlesAlgorithm();
+	private final Random random = new Random(42);
+
+	@Test(invocationTimeOut = 30000)
+	public void testFlatEngineOnRandomGraphs() {
+		LittlesAlgorithm flat = new FlatLittlesAlgorithm();
+
+		for (int i = 0; i < 1000; i++) {
+			int[][] graph = getRandomGraph(2 + random.nextInt(9));
+			recursive.findHamiltonianCycle(graph);
+			flat.findHamiltonianCycle(graph);
+
+			Assert.assertEquals(flat.getPathLength(), recursive.getPathLength(), "Wrong length of Cycle.");
+			Assert.assertTrue(Arrays.deepEquals(flat.getPathCycle(), recursive.getPathCycle()), "Wrong Cycle.");
+		}
+	}
+
+	@Test(invocationTimeOut = 30000)
+	public void testFlatEngineOnRealWorldGraph() {
+		LittlesAlgorithm flat = new FlatLittlesAlgorithm();
+
+		long start = System.nanoTime();
+		flat.findHamiltonianCycle(REAL_DURATIONS);
+		CustomLogger.log("Time spent: " + (System.nanoTime() - start) + "ns");
+		recursive.findHamiltonianCycle(REAL_DURATIONS);
+
+		Assert.assertEquals(flat.getPathLength(), recursive.getPathLength(), "Wrong length of Cycle.");
+		Assert.assertTrue(Arrays.deepEquals(flat.getPathCycle(), recursive.getPathCycle()), "Wrong Cycle.");
+	}
+
+	@Test(invocationTimeOut = 60000)
+	public void testParallelEngineOnRandomGraphs() {
+		LittlesAlgorithm parallel = new ParallelLittlesAlgorithm();
+
+		for (int i = 0; i < 300; i++) {
+			int[][] graph = getRandomGraph(2 + random.nextInt(11));
+			recursive.findHamiltonianCycle(graph);
+			parallel.findHamiltonianCycle(graph);
+
+			Assert.assertEquals(parallel.getPathLength(), recursive.getPathLength(), "Wrong length of Cycle.");
+			verifyCycleLength(graph, parallel.getPathCycle(), parallel.getPathLength());
+		}
+	}
+
+	@Test(invocationTimeOut = 60000)
+	public void testBestFirstEngineOnRandomGraphs() {
+		LittlesAlgorithm bestFirst = new BestFirstLittlesAlgorithm();
+		LittlesAlgorithm bestFirstWithTinyCap = new BestFirstLittlesAlgorithm(200);
+		long recursiveNodes = 0, bestFirstNodes = 0;
+
+		for (int i = 0; i < 300; i++) {
+			int[][] graph = getRandomGraph(2 + random.nextInt(11));
+			recursive.findHamiltonianCycle(graph);
+			bestFirst.findHamiltonianCycle(graph);
+			bestFirstWithTinyCap.findHamiltonianCycle(graph);
+			recursiveNodes += recursive.getExploredNodes();
+			bestFirstNodes += bestFirst.getExploredNodes();
+
+			Assert.assertEquals(bestFirst.getPathLength(), recursive.getPathLength(), "Wrong length of Cycle.");
+			verifyCycleLength(graph, bestFirst.getPathCycle(), bestFirst.getPathLength());
+			Assert.assertEquals(bestFirstWithTinyCap.getPathLength(), recursive.getPathLength(), "Wrong length.");
+			verifyCycleLength(graph, bestFirstWithTinyCap.getPathCycle(), bestFirstWithTinyCap.getPathLength());
+		}
+
+		CustomLogger.log("Explored nodes: recursive = " + recursiveNodes + ", best-first = " + bestFirstNodes);
+		Assert.assertTrue(bestFirstNodes < recursiveNodes, "Best-first engine must explore less branches.");
+	}
+
+	@Test(invocationTimeOut = 60000)
+	public void testWarmStartOnRandomGraphs() {
+		LittlesAlgorithm[] engines = { new LittlesAlgorithm(), new FlatLittlesAlgorithm(),
+				new ParallelLittlesAlgorithm(), new BestFirstLittlesAlgorithm() };
+		for (LittlesAlgorithm engine : engines)
+			engine.setWarmStart(true);
+
+		for (int i = 0; i < 300; i++) {
+			int[][] graph = getRandomGraph(2 + random.nextInt(10));
+			recursive.findHamiltonianCycle(graph);
+			int[] tour = TourHeuristic.getNearestNeighbourTour(graph, graph.length);
+			int[] improvedTour = TourHeuristic.improveWithOrOpt(graph, tour);
+
+			Assert.assertTrue(TourHeuristic.isTour(improvedTour, graph.length), "Or-opt broke the tour.");
+			Assert.assertTrue(TourHeuristic.getTourLength(graph, improvedTour) <= TourHeuristic.getTourLength(graph, tour));
+			Assert.assertTrue(TourHeuristic.getTourLength(graph, improvedTour) >= recursive.getPathLength());
+
+			for (LittlesAlgorithm engine : engines) {
+				engine.findHamiltonianCycle(graph, graph.length, tour);
+				Assert.assertEquals(engine.getPathLength(), recursive.getPathLength(), "Wrong length of Cycle.");
+				verifyCycleLength(graph, engine.getPathCycle(), engine.getPathLength());
+			}
+		}
+	}
+
+	@Test
+	public void testParallelEngineForksIntoPoolOfCaller() {
+		ForkJoinPool pool = new ForkJoinPool(2);
+		long commonSteals = ForkJoinPool.commonPool().getStealCount();
+
+		for (int i = 0; i < 10; i++) {
+			int[][] graph = getRandomGraph(12);
+			LittlesAlgorithm parallel = pool.submit(() -> {
+				LittlesAlgorithm engine = new ParallelLittlesAlgorithm();
+				engine.findHamiltonianCycle(graph);
+				return engine;
+			}).join();
+
+			recursive.findHamiltonianCycle(graph);
+			Assert.assertEquals(parallel.getPathLength(), recursive.getPathLength(), "Wrong length of Cycle.");
+		}
+
+		pool.shutdown();
+		Assert.assertEquals(ForkJoinPool.commonPool().getStealCount(), commonSteals, "Common pool is used.");
+	}
+
+	@Test(invocationTimeOut = 60000)
+	public void testBudgetOnRandomGraphs() {
+		LittlesAlgorithm[] engines = { new LittlesAlgorithm(), new FlatLittlesAlgorithm(),
+				new ParallelLittlesAlgorithm(), new BestFirstLittlesAlgorithm() };
+		for (LittlesAlgorithm engine : engines)
+			engine.setBudget(0, 20);
+
+		for (int i = 0; i < 100; i++) {
+			int[][] graph = getRandomGraph(10 + random.nextInt(4));
+			recursive.findHamiltonianCycle(graph);
+			Assert.assertTrue(recursive.isOptimal(), "Unlimited search must be optimal.");
+
+			for (LittlesAlgorithm engine : engines) {
+				engine.findHamiltonianCycle(graph);
+				Assert.assertTrue(engine.getPathLength() >= recursive.getPathLength(), "Too short Cycle.");
+				Assert.assertTrue(!engine.isOptimal() || engine.getPathLength() == recursive.getPathLength());
+				verifyCycleLength(graph, engine.getPathCycle(), engine.getPathLength());
+			}
+		}
+
+		for (LittlesAlgorithm engine : engines) {
+			engine.setBudget(0, 5);
+			int[][] graph = getRandomGraph(30);
+			engine.findHamiltonianCycle(graph);
+			Assert.assertFalse(engine.isOptimal(), "30x30 graph can't be solved in 5 branches.");
+			Assert.assertNotNull(engine.getPathCycle(), "Heuristic Cycle isn't taken.");
+			verifyCycleLength(graph, engine.getPathCycle(), engine.getPathLength());
+		}
+
+		for (LittlesAlgorithm timed : new LittlesAlgorithm[] { new FlatLittlesAlgorithm(), new ParallelLittlesAlgorithm() }) {
+			timed.setBudget(10, 0);
+			long start = System.currentTimeMillis();
+			timed.findHamiltonianCycle(getRandomGraph(40));
+			Assert.assertTrue(System.currentTimeMillis() - start < 1000, "Time budget is ignored.");
+			Assert.assertFalse(timed.isOptimal(), "40x40 graph can't be solved in 10ms.");
+		}
+	}
+
+	/**
+	 * Engines may choose different cycles of the same length, so the cycle is
+	 * verified by walking through its edges
+	 */
+	private void verifyCycleLength(int[][] graph, int[][] pathCycle, int pathLength) {
+		Assert.assertEquals(pathCycle.length, graph.length, "Incorrect number of edges.");
+
+		boolean[] visited = new boolean[graph.length];
+		int length = 0;
+
+		for (int node = pathCycle[0][0], count = 0; count < graph.length; count++)
+			for (int[] edge : pathCycle)
+				if (edge[0] == node) {
+					Assert.assertFalse(visited[edge[1]], "Early shortage of Cycle detected.");
+					visited[edge[1]] = true;
+					length += graph[edge[0]][edge[1]];
+					node = edge[1];
+					break;
+				}
+
+		Assert.assertEquals(length, pathLength, "Cycle length is inconsistent.");
+	}
+
+	private int[][] getRandomGraph(int size) {
+		int[][] graph = new int[size][size];
+		for (int i = 0; i < size; i++)
+			for (int j = 0; j < size; j++)
+				graph[i][j] = random.nextInt(999) + 1;
+		return graph;
+	}
+
+}
@@ -0,0 +1,103 @@
+package com.asemenkov.carpool.logistics.tests;
+
+import static com.asemenkov.carpool.logistics.RealWorldData.REAL_DURATIONS;
+import static com.asemenkov.carpool.logistics.RealWorldData.REAL_POINTS;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.asemenkov.carpool.logistics.models.db.Task;
+import com.asemenkov.carpool.logistics.services.algorithms.Car;
+import com.asemenkov.carpool.logistics.services.enums.MixingMode;
+import com.asemenkov.carpool.logistics.services.googlemaps.GoogleMapsPoint;
+import com.asemenkov.carpool.logistics.services.logistics.LogisticsProcess;
+
+/**
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+@Test
+public class LogisticsProcessTest extends AbstractTest {
+
+	private static final int HUBS = 2;
+	private static final int PASSENGERS = REAL_POINTS.length - HUBS;
+
+	/**
+	 * Passenger i is picked up at hub (i % HUBS), so drop off of passenger i has
+	 * Global Matrix index i, and hub h has index (PASSENGERS + h)
+	 */
+	private final List<Task> tasks = IntStream.range(0, PASSENGERS).mapToObj(i -> {
+		Task task = new Task();
+		task.setPickupLocation(getDbRepresentation(REAL_POINTS[i % HUBS]));
+		task.setDropoffLocation(getDbRepresentation(REAL_POINTS[HUBS + i]));
+		return task;
+	}).collect(Collectors.toList());
+
+	private final int[][] globalMatrix = IntStream.range(0, REAL_POINTS.length)
+			.mapToObj(from -> IntStream.range(0, REAL_POINTS.length)
+					.map(to -> REAL_DURATIONS[getPoint(from)][getPoint(to)]).toArray())
+			.toArray(int[][]::new);
+
+	@Test
+	public void testMultipleStartsAreReproducible() {
+		verifySameCars(optimizeTasks(8), optimizeTasks(8));
+	}
+
+	@Test
+	public void testAnnealingStartsAreReproducible() {
+		verifySameCars(optimizeTasks(4, MixingMode.SIMULATED_ANNEALING),
+				optimizeTasks(4, MixingMode.SIMULATED_ANNEALING));
+	}
+
+	@Test
+	public void testBestStartIsNotWorseThanTaskOrder() {
+		Car[] cars = optimizeTasks(8);
+		Car[] taskOrderCars = optimizeTasks(1);
+
+		Assert.assertTrue(cars.length <= taskOrderCars.length, "Too many cars.");
+		if (cars.length == taskOrderCars.length)
+			Assert.assertTrue(getLength(cars) <= getLength(taskOrderCars), "Too long routes.");
+		Assert.assertEquals(Arrays.stream(cars).mapToInt(car -> (int) Arrays.stream(car.getDrops())
+				.filter(drop -> drop >= 0).count()).sum(), PASSENGERS, "Not all the passengers are seated.");
+	}
+
+	private Car[] optimizeTasks(int starts) {
+		return optimizeTasks(starts, MixingMode.KERNIGHAN_LIN);
+	}
+
+	private Car[] optimizeTasks(int starts, MixingMode mixingMode) {
+		LogisticsProcess logisticsProcess = logisticsProcessFactory.get("test", new long[0], mixingMode);
+		logisticsProcess.setStarts(starts, 42);
+		return logisticsProcess.optimizeTasks(tasks, globalMatrix);
+	}
+
+	private void verifySameCars(Car[] cars, Car[] sameCars) {
+		Assert.assertEquals(sameCars.length, cars.length, "Wrong number of cars.");
+		for (int i = 0; i < cars.length; i++) {
+			Assert.assertEquals(sameCars[i].getPicks(), cars[i].getPicks(), "Wrong pick ups.");
+			Assert.assertEquals(sameCars[i].getDrops(), cars[i].getDrops(), "Wrong drop offs.");
+			Assert.assertEquals(sameCars[i].getMixResult(), cars[i].getMixResult(), "Wrong length.");
+		}
+	}
+
+	private int getLength(Car[] cars) {
+		return Arrays.stream(cars).mapToInt(Car::getMixResult).sum();
+	}
+
+	/**
+	 * @return index of real point by Global Matrix index
+	 */
+	private static int getPoint(int index) {
+		return index < PASSENGERS ? HUBS + index : index - PASSENGERS;
+	}
+
+	private static String getDbRepresentation(GoogleMapsPoint point) {
+		return "POINT(" + point.getLatitude() + " " + point.getLongtitude() + ")";
+	}
+
+}
@@ -0,0 +1,165 @@
+package com.asemenkov.carpool.logistics.tests;
+
+import static com.asemenkov.carpool.logistics.RealWorldData.REAL_DURATIONS;
+
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.asemenkov.carpool.logistics.services.algorithms.HeldKarpSolver;
+import com.asemenkov.carpool.logistics.services.algorithms.LittlesAlgorithm;
+import com.asemenkov.carpool.logistics.services.algorithms.PickupDeliverySolver;
+
+/**
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+@Test
+public class PickupDeliverySolverTest extends AbstractTest {
+
+	private final PickupDeliverySolver solver = new PickupDeliverySolver();
+	private final Random random = new Random(42);
+
+	private int bruteForceLength;
+
+	@Test
+	public void testPredefinedGraph() {
+		int[][] graph = { //
+				{ 0, 1, 9, 9 }, //
+				{ 9, 0, 9, 1 }, //
+				{ 1, 9, 0, 9 }, //
+				{ 9, 9, 1, 0 } };
+
+		solver.findHamiltonianPath(graph, 4, new long[4]);
+		Assert.assertEquals(solver.getPathLength(), 3, "Wrong length of Path.");
+		Assert.assertEquals(solver.getPath(), new int[] { 0, 1, 3, 2 }, "Wrong Path.");
+
+		solver.findHamiltonianPath(graph, 4, new long[] { 0, 0, 0b0010, 0 });
+		Assert.assertEquals(solver.getPathLength(), 3, "Wrong length of Path.");
+
+		solver.findHamiltonianPath(graph, 4, new long[] { 0, 0b0100, 0b0001, 0 });
+		Assert.assertEquals(solver.getPathLength(), 19, "Wrong length of Path.");
+		Assert.assertEquals(solver.getPath(), new int[] { 0, 2, 1, 3 }, "Wrong Path.");
+
+		solver.findHamiltonianPath(graph, 4, new long[4], 2, null);
+		Assert.assertEquals(solver.getPathLength(), 3, "Wrong length of Path.");
+		Assert.assertEquals(solver.getPath()[0], 2, "Wrong start of Path.");
+	}
+
+	@Test
+	public void testRandomPrecedenceAgainstBruteForce() {
+		for (int i = 0; i < 500; i++) {
+			int size = 1 + random.nextInt(8);
+			int[][] graph = getRandomGraph(size);
+			long[] predecessors = new long[size];
+
+			for (int node = 0; node < size; node++)
+				for (int prev = 0; prev < node; prev++)
+					if (random.nextInt(4) == 0)
+						predecessors[node] |= 1L << prev;
+
+			bruteForceLength = Integer.MAX_VALUE;
+			bruteForce(graph, predecessors, new int[size], 0, 0, 0);
+			solver.findHamiltonianPath(graph, size, predecessors);
+
+			Assert.assertEquals(solver.getPathLength(), bruteForceLength, "Wrong length of Path.");
+			verifyPath(graph, predecessors, solver.getPath(), solver.getPathLength());
+		}
+	}
+
+	@Test
+	public void testPicksBeforeDropsAgainstLittles() {
+		LittlesAlgorithm littlesAlgorithm = new LittlesAlgorithm();
+
+		for (int i = 0; i < 500; i++) {
+			int picks = 1 + random.nextInt(4);
+			int size = picks + 1 + random.nextInt(4);
+			int[] points = random.ints(0, REAL_DURATIONS.length).distinct().limit(size).toArray();
+			int[][] graph = new int[size][size];
+			int[][] infGraph = new int[size][size];
+			long[] predecessors = new long[size];
+
+			for (int from = 0; from < size; from++)
+				for (int to = 0; to < size; to++) {
+					graph[from][to] = REAL_DURATIONS[points[from]][points[to]];
+					infGraph[from][to] = from >= picks && to < picks ? LittlesAlgorithm.INF3 : graph[from][to];
+				}
+
+			for (int node = picks; node < size; node++)
+				predecessors[node] = (1L << picks) - 1;
+
+			solver.findHamiltonianPath(graph, size, predecessors);
+			littlesAlgorithm.findHamiltonianCycle(infGraph);
+
+			Assert.assertEquals(solver.getPathLength(), littlesAlgorithm.getPathLength() - LittlesAlgorithm.INF3);
+			verifyPath(graph, predecessors, solver.getPath(), solver.getPathLength());
+		}
+	}
+
+	@Test
+	public void testHeldKarpAgainstBruteForce() {
+		PickupDeliverySolver heldKarpSolver = new HeldKarpSolver();
+
+		for (int i = 0; i < 500; i++) {
+			int size = 1 + random.nextInt(8);
+			int[][] graph = getRandomGraph(size);
+			long[] predecessors = new long[size];
+
+			for (int node = 0; node < size; node++)
+				for (int prev = 0; prev < node; prev++)
+					if (random.nextInt(4) == 0)
+						predecessors[node] |= 1L << prev;
+
+			bruteForceLength = Integer.MAX_VALUE;
+			bruteForce(graph, predecessors, new int[size], 0, 0, 0);
+			heldKarpSolver.findHamiltonianPath(graph, size, predecessors);
+
+			Assert.assertEquals(heldKarpSolver.getPathLength(), bruteForceLength, "Wrong length of Path.");
+			verifyPath(graph, predecessors, heldKarpSolver.getPath(), heldKarpSolver.getPathLength());
+		}
+
+		heldKarpSolver.findHamiltonianPath(REAL_DURATIONS, 6, new long[6], 3, null);
+		solver.findHamiltonianPath(REAL_DURATIONS, 6, new long[6], 3, null);
+		Assert.assertEquals(heldKarpSolver.getPathLength(), solver.getPathLength(), "Wrong length of Path.");
+		Assert.assertEquals(heldKarpSolver.getPath()[0], 3, "Wrong start of Path.");
+	}
+
+	private void bruteForce(int[][] graph, long[] predecessors, int[] path, long visited, int depth, int length) {
+		if (depth == path.length) {
+			bruteForceLength = Math.min(bruteForceLength, length);
+			return;
+		}
+
+		for (int node = 0; node < path.length; node++)
+			if ((visited >>> node & 1) == 0 && (predecessors[node] & ~visited) == 0) {
+				path[depth] = node;
+				bruteForce(graph, predecessors, path, visited | 1L << node, depth + 1, //
+						depth == 0 ? 0 : length + graph[path[depth - 1]][node]);
+			}
+	}
+
+	private void verifyPath(int[][] graph, long[] predecessors, int[] path, int pathLength) {
+		Assert.assertEquals(path.length, graph.length, "Incorrect number of nodes.");
+		long visited = 0;
+		int length = 0;
+
+		for (int i = 0; i < path.length; i++) {
+			Assert.assertEquals(visited >>> path[i] & 1, 0L, "Node is visited twice.");
+			Assert.assertEquals(predecessors[path[i]] & ~visited, 0L, "Precedence is broken.");
+			visited |= 1L << path[i];
+			length += i == 0 ? 0 : graph[path[i - 1]][path[i]];
+		}
+
+		Assert.assertEquals(length, pathLength, "Path length is inconsistent.");
+	}
+
+	private int[][] getRandomGraph(int size) {
+		int[][] graph = new int[size][size];
+		for (int i = 0; i < size; i++)
+			for (int j = 0; j < size; j++)
+				graph[i][j] = random.nextInt(999) + 1;
+		return graph;
+	}
+
+}
@@ -0,0 +1,73 @@
+package com.asemenkov.carpool.logistics.tests;
+
+import static com.asemenkov.carpool.logistics.RealWorldData.REAL_DURATIONS;
+
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.asemenkov.carpool.logistics.services.algorithms.Car;
+import com.asemenkov.carpool.logistics.services.algorithms.CarState;
+import com.asemenkov.carpool.logistics.services.algorithms.PathRouteSolver;
+import com.asemenkov.carpool.logistics.services.algorithms.PickupDeliverySolver;
+import com.asemenkov.carpool.logistics.services.algorithms.RouteEstimator;
+
+/**
+ * Compares estimates of car routes with the shortest routes
+ *
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+@Test
+public class RouteEstimatorTest extends AbstractTest {
+
+	private static final int CAPACITY = 4;
+	private static final int HUBS = 3;
+
+	@Test
+	public void testInsertionLength() {
+		Random random = new Random(42);
+
+		for (int i = 0; i < 300; i++) {
+			CarState base = getCar(random).getState();
+			Car moved = getCar(random);
+
+			int[] picks = moved.getPicks().clone();
+			int[] drops = moved.getDrops().clone();
+			for (int seat = 0; seat < CAPACITY; seat++)
+				if (random.nextBoolean()) {
+					picks[seat] = base.getPicks()[seat];
+					drops[seat] = base.getDrops()[seat];
+				}
+
+			Car exact = new Car(CAPACITY, REAL_DURATIONS);
+			exact.setRouteSolver(new PathRouteSolver(PickupDeliverySolver::new));
+			for (int seat = 0; seat < CAPACITY; seat++)
+				if (picks[seat] >= 0)
+					exact.putPassenger(picks[seat], drops[seat]);
+			exact.mixOneItem();
+
+			int estimate = RouteEstimator.getInsertionLength(REAL_DURATIONS, base, picks, drops);
+			Assert.assertTrue(estimate >= exact.getMixResult(), "Estimate is less than the shortest route.");
+			Assert.assertEquals(RouteEstimator.getInsertionLength(REAL_DURATIONS, base, base.getPicks(), base.getDrops()),
+					base.getPathLength(), "Unchanged route is estimated wrong.");
+		}
+	}
+
+	/**
+	 * @return evaluated car with random passengers in random seats
+	 */
+	private Car getCar(Random random) {
+		Car car = new Car(CAPACITY, REAL_DURATIONS);
+		car.setRouteSolver(new PathRouteSolver(PickupDeliverySolver::new));
+
+		for (int seat = 0; seat < CAPACITY; seat++)
+			if (random.nextBoolean())
+				car.putPassenger(random.nextInt(HUBS), HUBS + random.nextInt(REAL_DURATIONS.length - HUBS));
+
+		car.mixOneItem();
+		return car;
+	}
+
+}
@@ -0,0 +1,104 @@
+package com.asemenkov.carpool.logistics.tests;
+
+import static com.asemenkov.carpool.logistics.RealWorldData.REAL_DURATIONS;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.asemenkov.carpool.logistics.services.algorithms.FlatLittlesAlgorithm;
+import com.asemenkov.carpool.logistics.services.algorithms.HeldKarpSolver;
+import com.asemenkov.carpool.logistics.services.algorithms.LittlesRouteSolver;
+import com.asemenkov.carpool.logistics.services.algorithms.PathRouteSolver;
+import com.asemenkov.carpool.logistics.services.algorithms.PickupDeliverySolver;
+import com.asemenkov.carpool.logistics.services.algorithms.RouteSolution;
+import com.asemenkov.carpool.logistics.services.algorithms.RouteSolver;
+import com.asemenkov.carpool.logistics.services.algorithms.ThresholdRouteSolver;
+
+/**
+ * Compares all the implementations of RouteSolver
+ *
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+@Test
+public class RouteSolverTest extends AbstractTest {
+
+	private final RouteSolver reference = new PathRouteSolver(PickupDeliverySolver::new);
+	private final RouteSolver[] solvers = { //
+			new LittlesRouteSolver(FlatLittlesAlgorithm::new), //
+			new PathRouteSolver(HeldKarpSolver::new), //
+			new ThresholdRouteSolver(new PathRouteSolver(HeldKarpSolver::new), reference, 6) };
+
+	@Test
+	public void testPicksBeforeDrops() {
+		Random random = new Random(42);
+
+		for (int i = 0; i < 300; i++) {
+			int picks = 1 + random.nextInt(4);
+			int size = picks + 1 + random.nextInt(4);
+			int[][] matrix = getMatrix(random, size);
+			long[] predecessors = new long[size];
+
+			for (int node = picks; node < size; node++)
+				predecessors[node] = (1L << picks) - 1;
+
+			verifySolvers(matrix, size, predecessors);
+		}
+	}
+
+	@Test
+	public void testWithoutConstraints() {
+		Random random = new Random(42);
+
+		for (int i = 0; i < 300; i++) {
+			int size = 1 + random.nextInt(8);
+			verifySolvers(getMatrix(random, size), size, new long[size]);
+		}
+	}
+
+	@Test
+	public void testReentrancy() {
+		int[][] matrix = getMatrix(new Random(42), 8);
+		long[] predecessors = { 0, 0, 0, 0, 15, 15, 15, 15 };
+		int expected = reference.solve(matrix, 8, predecessors, null).getLength();
+
+		for (RouteSolver solver : solvers)
+			Assert.assertTrue(IntStream.range(0, 1000).parallel() //
+					.allMatch(i -> solver.solve(matrix, 8, predecessors, null).getLength() == expected));
+	}
+
+	private void verifySolvers(int[][] matrix, int size, long[] predecessors) {
+		RouteSolution expected = reference.solve(matrix, size, predecessors, null);
+
+		for (RouteSolver solver : solvers) {
+			RouteSolution actual = solver.solve(matrix, size, predecessors, null);
+			Assert.assertEquals(actual.getLength(), expected.getLength(), "Wrong length of Path.");
+			Assert.assertTrue(actual.isOptimal(), "Path must be optimal.");
+
+			long visited = 0;
+			int length = 0;
+			for (int i = 0; i < size; i++) {
+				int node = actual.getPath()[i];
+				Assert.assertEquals(predecessors[node] & ~visited, 0L, "Precedence is broken.");
+				visited |= 1L << node;
+				length += i == 0 ? 0 : matrix[actual.getPath()[i - 1]][node];
+			}
+
+			Assert.assertEquals(Long.bitCount(visited), size, "Not all the nodes are visited.");
+			Assert.assertEquals(length, actual.getLength(), "Path length is inconsistent.");
+		}
+	}
+
+	private int[][] getMatrix(Random random, int size) {
+		int[] points = random.ints(0, REAL_DURATIONS.length).distinct().limit(size).toArray();
+		int[][] matrix = new int[size][size];
+		for (int from = 0; from < size; from++)
+			for (int to = 0; to < size; to++)
+				matrix[from][to] = REAL_DURATIONS[points[from]][points[to]];
+		return matrix;
+	}
+
+}
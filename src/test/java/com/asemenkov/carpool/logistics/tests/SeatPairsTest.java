@@ -0,0 +1,40 @@
+package com.asemenkov.carpool.logistics.tests;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.asemenkov.carpool.logistics.services.algorithms.SeatPairs;
+
+/**
+ * @author asemenkov
+ * @since Oct 18, 2026
+ */
+@Test
+public class SeatPairsTest extends AbstractTest {
+
+	private static final int CAPACITY = 8;
+
+	@Test
+	public void testDistinctPairsWorthSwapping() {
+		SeatPairs seatPairs = new SeatPairs(CAPACITY);
+
+		for (int seats = 0; seats <= CAPACITY; seats++) {
+			Set<Integer> pairs = new HashSet<>();
+
+			for (int index = 0; index < seatPairs.getCount(seats); index++) {
+				int[] pair = seatPairs.get(seats, index);
+				Assert.assertTrue(pair[0] < pair[1] && pair[1] < CAPACITY, "Wrong pair of seats.");
+				Assert.assertTrue(pair[1] <= seats || pair[0] == seats, "Empty seat is not the first one.");
+				Assert.assertTrue(pairs.add(pair[0] * CAPACITY + pair[1]), "Pair is duplicated.");
+			}
+
+			int empty = CAPACITY - seats;
+			int expected = seats * (seats - 1) / 2 + (empty > 0 ? seats : 0) + (empty > 1 ? 1 : 0);
+			Assert.assertEquals(pairs.size(), expected, "Not all the pairs are enumerated.");
+		}
+	}
+
+}